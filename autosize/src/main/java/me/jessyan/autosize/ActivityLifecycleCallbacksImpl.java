@@ -16,8 +16,11 @@
 package me.jessyan.autosize;
 
 import ohos.aafwk.ability.*;
-import ohos.hiviewdfx.HiLog;
-import ohos.hiviewdfx.HiLogLabel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * ================================================
@@ -31,11 +34,15 @@ import ohos.hiviewdfx.HiLogLabel;
  */
 public class ActivityLifecycleCallbacksImpl implements AbilityLifecycleCallbacks {
 
-    static HiLogLabel label = new HiLogLabel(HiLog.LOG_APP, 0x0, "MYLOG");
     /**
      * 屏幕适配逻辑策略类
      */
     private AutoAdaptStrategy mAutoAdaptStrategy;
+    /**
+     * 所有已经启动还未销毁的 {@link Ability}, value 表示是否可见, 只在主线程中访问
+     * 使用弱引用, 即使没有收到 {@link #onAbilityStop(Ability)} 也不会泄漏
+     */
+    private final Map<Ability, Boolean> mAbilities = new WeakHashMap<>();
 
     public ActivityLifecycleCallbacksImpl(AutoAdaptStrategy autoAdaptStrategy) {
         mAutoAdaptStrategy = autoAdaptStrategy;
@@ -43,30 +50,31 @@ public class ActivityLifecycleCallbacksImpl implements AbilityLifecycleCallbacks
 
     @Override
     public void onAbilityStart(Ability ability) {
-        HiLog.info(label, "ActivityLifecycleCallbacksImpl.onAbilityStart()");
-        HiLog.info(label, "ability"+ability);
-        HiLog.info(label, "mAutoAdaptStrategy"+mAutoAdaptStrategy);
+        //框架停止运行时也需要记录, 重新启动时才能适配停止期间打开的 Ability
+        mAbilities.put(ability, Boolean.TRUE);
         //Activity 中的 setContentView(View) 一定要在 super.onCreate(Bundle); 之后执行
-        if (mAutoAdaptStrategy != null) {
-            mAutoAdaptStrategy.applyAdapt(ability, ability);
+        if (mAutoAdaptStrategy != null && !AutoSizeConfig.getInstance().isStop()) {
+            applyAdapt(ability);
         }
     }
 
     @Override
     public void onAbilityActive(Ability ability) {
-        if (mAutoAdaptStrategy != null) {
-            mAutoAdaptStrategy.applyAdapt(ability, ability);
+        if (mAutoAdaptStrategy != null && !AutoSizeConfig.getInstance().isStop()) {
+            applyAdapt(ability);
         }
     }
 
     @Override
     public void onAbilityForeground(Ability ability) {
-
+        mAbilities.put(ability, Boolean.TRUE);
     }
 
     @Override
     public void onAbilityBackground(Ability ability) {
-
+        if (mAbilities.containsKey(ability)) {
+            mAbilities.put(ability, Boolean.FALSE);
+        }
     }
 
     @Override
@@ -76,7 +84,72 @@ public class ActivityLifecycleCallbacksImpl implements AbilityLifecycleCallbacks
 
     @Override
     public void onAbilityStop(Ability ability) {
+        mAbilities.remove(ability);
+    }
 
+    /**
+     * 使用当前的适配参数重新适配所有已经启动的 {@link Ability}, 必须在主线程中调用
+     * 用于适配参数在 {@link Ability} 启动之后才发生变化的情况 (如 MetaData 读取完成、系统配置变化、修改了全局适配参数)
+     * 同一个 Display 上的 {@link Ability} 共用同一份适配参数, 所以最后才适配可见的 {@link Ability}, 保证最终生效的是可见页面的适配参数
+     */
+    void reAdaptAbilities() {
+        if (mAutoAdaptStrategy == null) {
+            return;
+        }
+        //applyAdapt 可能会触发生命周期回调, 所以先复制一份
+        for (Ability ability : getAbilities(false)) {
+            applyAdapt(ability);
+        }
+        for (Ability ability : getAbilities(true)) {
+            applyAdapt(ability);
+        }
+    }
+
+    /**
+     * 使用 {@link #mAutoAdaptStrategy} 适配 {@code ability}, 开启 {@link AdaptTracer} 时记录本次适配
+     * 在分发时记录, 所以任何 {@link AutoAdaptStrategy} (包括被 {@link WrapperAutoAdaptStrategy} 包装的) 调用的适配方法都会被记录
+     */
+    private void applyAdapt(Ability ability) {
+        AdaptTracer tracer = AutoSizeConfig.getInstance().getAdaptTracer();
+        //关闭追踪时不调用 System.nanoTime()
+        if (!tracer.isEnabled()) {
+            mAutoAdaptStrategy.applyAdapt(ability, ability);
+            return;
+        }
+        tracer.begin();
+        long start = System.nanoTime();
+        mAutoAdaptStrategy.applyAdapt(ability, ability);
+        tracer.end(ability.getClass(), System.nanoTime() - start);
+    }
+
+    /**
+     * 取消所有已经启动的 {@link Ability} 的适配, 必须在主线程中调用
+     */
+    void cancelAdaptAbilities() {
+        for (Ability ability : getAbilities(false)) {
+            AutoSize.cancelAdapt(ability);
+        }
+        for (Ability ability : getAbilities(true)) {
+            AutoSize.cancelAdapt(ability);
+        }
+    }
+
+    /**
+     * @return 已经启动还未销毁的 {@link Ability} 的个数
+     */
+    int getAbilityCount() {
+        return mAbilities.size();
+    }
+
+    private List<Ability> getAbilities(boolean visible) {
+        List<Ability> abilities = new ArrayList<>(mAbilities.size());
+        for (Map.Entry<Ability, Boolean> entry : mAbilities.entrySet()) {
+            Ability ability = entry.getKey();
+            if (ability != null && entry.getValue() == visible) {
+                abilities.add(ability);
+            }
+        }
+        return abilities;
     }
 
     /**
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.external.ExternalAdaptInfo;
+import me.jessyan.autosize.external.ExternalAdaptManager;
+import me.jessyan.autosize.internal.CancelAdapt;
+import me.jessyan.autosize.internal.CustomAdapt;
+
+/**
+ * ================================================
+ * 某个 target class 预先计算好的适配决策, 由 {@link DefaultAutoAdaptStrategy} 按 class 缓存
+ * 决策只和 target 的 class 以及 {@link ExternalAdaptManager} 中的配置有关, 所以同一个 class 只需要计算一次
+ * ================================================
+ */
+final class AdaptPlan {
+    static final AdaptPlan CANCEL = new AdaptPlan(AdaptType.CANCEL, null);
+    static final AdaptPlan CUSTOM = new AdaptPlan(AdaptType.CUSTOM, null);
+    static final AdaptPlan GLOBAL = new AdaptPlan(AdaptType.GLOBAL, null);
+
+    final AdaptType type;
+    /**
+     * 只有 {@link #type} 为 {@link AdaptType#EXTERNAL} 时才不为 {@code null}
+     */
+    final ExternalAdaptInfo externalAdaptInfo;
+
+    private AdaptPlan(AdaptType type, ExternalAdaptInfo externalAdaptInfo) {
+        this.type = type;
+        this.externalAdaptInfo = externalAdaptInfo;
+    }
+
+    /**
+     * 计算 {@code targetClass} 的适配决策, 优先级与 {@link DefaultAutoAdaptStrategy#applyAdapt} 的判断顺序一致
+     *
+     * @param targetClass 需要屏幕适配的对象的 class
+     * @param manager     {@link ExternalAdaptManager}
+     * @return {@link AdaptPlan}
+     */
+    static AdaptPlan resolve(Class<?> targetClass, ExternalAdaptManager manager) {
+        //检查是否开启了外部三方库的适配模式, 只要不主动调用 ExternalAdaptManager 的方法, 下面的代码就不会执行
+        if (manager.isRun()) {
+            if (manager.isCancelAdapt(targetClass)) {
+                return CANCEL;
+            }
+            ExternalAdaptInfo info = manager.getExternalAdaptInfoOfActivity(targetClass);
+            if (info != null) {
+                return new AdaptPlan(AdaptType.EXTERNAL, info);
+            }
+        }
+        //如果 target 实现 CancelAdapt 接口表示放弃适配, 所有的适配效果都将失效
+        if (CancelAdapt.class.isAssignableFrom(targetClass)) {
+            return CANCEL;
+        }
+        //如果 target 实现 CustomAdapt 接口表示该 target 想自定义一些用于适配的参数, 从而改变最终的适配效果
+        if (CustomAdapt.class.isAssignableFrom(targetClass)) {
+            return CUSTOM;
+        }
+        return GLOBAL;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import java.util.Locale;
+
+/**
+ * ================================================
+ * 一次适配的追踪记录, 由 {@link AdaptTracer} 记录, 不可变
+ *
+ * @see AdaptTracer
+ * ================================================
+ */
+public final class AdaptRecord {
+    private final Class<?> mAbilityClass;
+    private final AdaptType mType;
+    private final long mDurationNanos;
+    private final boolean isCacheHit;
+    private final DisplayMetricsInfo mDisplayMetricsInfo;
+
+    AdaptRecord(Class<?> abilityClass, AdaptType type, long durationNanos, boolean cacheHit, DisplayMetricsInfo displayMetricsInfo) {
+        mAbilityClass = abilityClass;
+        mType = type;
+        mDurationNanos = durationNanos;
+        isCacheHit = cacheHit;
+        mDisplayMetricsInfo = displayMetricsInfo;
+    }
+
+    /**
+     * @return 被适配的 {@code Ability} 的 class
+     */
+    public Class<?> getAbilityClass() {
+        return mAbilityClass;
+    }
+
+    /**
+     * @return 适配决策
+     */
+    public AdaptType getType() {
+        return mType;
+    }
+
+    /**
+     * @return 本次适配的耗时, 单位纳秒
+     */
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+    /**
+     * @return 是否命中了适配参数的缓存, {@link AdaptType#CANCEL} 时不需要计算适配参数, 总是返回 {@code false}
+     */
+    public boolean isCacheHit() {
+        return isCacheHit;
+    }
+
+    /**
+     * @return 适配后的 {@link DisplayMetricsInfo}, {@link AdaptType#CANCEL} 时为 {@code null}
+     */
+    public DisplayMetricsInfo getDisplayMetricsInfo() {
+        return mDisplayMetricsInfo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "AdaptRecord{ability=%s, type=%s, durationNanos=%d, cacheHit=%b, displayMetricsInfo=%s}"
+                , mAbilityClass.getName(), mType, mDurationNanos, isCacheHit, mDisplayMetricsInfo);
+    }
+}
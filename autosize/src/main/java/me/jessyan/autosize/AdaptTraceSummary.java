@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import java.util.Locale;
+
+/**
+ * ================================================
+ * 某个 {@code Ability} class 的适配耗时汇总, 由 {@link AdaptTracer#summarize()} 根据环形缓冲区中现存的 {@link AdaptRecord} 计算, 不可变
+ * ================================================
+ */
+public final class AdaptTraceSummary {
+    private final Class<?> mAbilityClass;
+    private final int mCount;
+    private final int mCacheHitCount;
+    private final long mP50Nanos;
+    private final long mP99Nanos;
+    private final long mMaxNanos;
+
+    AdaptTraceSummary(Class<?> abilityClass, int count, int cacheHitCount, long p50Nanos, long p99Nanos, long maxNanos) {
+        mAbilityClass = abilityClass;
+        mCount = count;
+        mCacheHitCount = cacheHitCount;
+        mP50Nanos = p50Nanos;
+        mP99Nanos = p99Nanos;
+        mMaxNanos = maxNanos;
+    }
+
+    public Class<?> getAbilityClass() {
+        return mAbilityClass;
+    }
+
+    /**
+     * @return 适配次数
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return 命中适配参数缓存的次数
+     */
+    public int getCacheHitCount() {
+        return mCacheHitCount;
+    }
+
+    /**
+     * @return 耗时的中位数, 单位纳秒
+     */
+    public long getP50Nanos() {
+        return mP50Nanos;
+    }
+
+    /**
+     * @return 耗时的 99 分位数, 单位纳秒
+     */
+    public long getP99Nanos() {
+        return mP99Nanos;
+    }
+
+    /**
+     * @return 最大耗时, 单位纳秒
+     */
+    public long getMaxNanos() {
+        return mMaxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "AdaptTraceSummary{ability=%s, count=%d, cacheHitCount=%d, p50Nanos=%d, p99Nanos=%d, maxNanos=%d}"
+                , mAbilityClass.getName(), mCount, mCacheHitCount, mP50Nanos, mP99Nanos, mMaxNanos);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ================================================
+ * 适配追踪, 记录每次适配的耗时 (纳秒)、是否命中缓存、适配决策 ({@link AdaptType}) 以及适配后的 {@link DisplayMetricsInfo}
+ * 可通过 {@link AutoSizeConfig#getAdaptTracer()} 获取, 默认关闭, 关闭时每次适配只多读取两次 volatile 变量
+ * <p>
+ * 记录保存在固定大小的环形缓冲区中, 写满后覆盖最早的记录
+ * 写入时通过 {@link AtomicLong} 分配槽位, 再将不可变的 {@link AdaptRecord} 存入 {@link AtomicReferenceArray}, 不需要加锁
+ * 读取时不会读取到写了一半的记录
+ * ================================================
+ */
+public final class AdaptTracer {
+    static final int DEFAULT_CAPACITY = 512;
+
+    private final AtomicReferenceArray<AdaptRecord> mBuffer;
+    private final int mMask;
+    private final AtomicLong mCursor = new AtomicLong();
+    private volatile boolean isEnabled;
+    /**
+     * 本次适配的决策和结果, 适配只在主线程中进行, 由 {@link AutoSize} 写入, 在 {@link #begin()} 和 {@link #end} 中清空
+     * 为 {@code null} 表示本次分发中 {@link AutoAdaptStrategy} 没有调用任何适配方法
+     */
+    private AdaptType mPendingType;
+    private DisplayMetricsInfo mPendingInfo;
+    private boolean isPendingCacheHit;
+
+    AdaptTracer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    AdaptTracer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mBuffer = new AtomicReferenceArray<>(size);
+        mMask = size - 1;
+    }
+
+    /**
+     * 是否开启适配追踪
+     *
+     * @param enabled {@code true} 为开启
+     */
+    public AdaptTracer setEnabled(boolean enabled) {
+        isEnabled = enabled;
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * 环形缓冲区中现存的所有记录, 按记录的先后顺序排列
+     *
+     * @return {@link AdaptRecord}
+     */
+    public List<AdaptRecord> getRecords() {
+        long end = mCursor.get();
+        long start = Math.max(0, end - mBuffer.length());
+        List<AdaptRecord> records = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            AdaptRecord record = mBuffer.get((int) (i & mMask));
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 按 {@code Ability} 的 class 汇总环形缓冲区中现存的记录
+     *
+     * @return key 为 {@code Ability} 的 class, 按第一次出现的顺序排列
+     */
+    public Map<Class<?>, AdaptTraceSummary> summarize() {
+        Map<Class<?>, List<AdaptRecord>> groups = new LinkedHashMap<>();
+        for (AdaptRecord record : getRecords()) {
+            List<AdaptRecord> group = groups.get(record.getAbilityClass());
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(record.getAbilityClass(), group);
+            }
+            group.add(record);
+        }
+        Map<Class<?>, AdaptTraceSummary> summaries = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, List<AdaptRecord>> entry : groups.entrySet()) {
+            List<AdaptRecord> group = entry.getValue();
+            long[] durations = new long[group.size()];
+            int cacheHitCount = 0;
+            for (int i = 0; i < durations.length; i++) {
+                AdaptRecord record = group.get(i);
+                durations[i] = record.getDurationNanos();
+                if (record.isCacheHit()) {
+                    cacheHitCount++;
+                }
+            }
+            Arrays.sort(durations);
+            summaries.put(entry.getKey(), new AdaptTraceSummary(entry.getKey(), durations.length, cacheHitCount
+                    , percentile(durations, 50), percentile(durations, 99), durations[durations.length - 1]));
+        }
+        return Collections.unmodifiableMap(summaries);
+    }
+
+    /**
+     * 清空所有记录, 之后的记录从环形缓冲区的起点重新开始, 不要在适配的同时调用
+     */
+    public void clear() {
+        for (int i = 0; i < mBuffer.length(); i++) {
+            mBuffer.set(i, null);
+        }
+        mCursor.set(0);
+    }
+
+    /**
+     * 由 {@link ActivityLifecycleCallbacksImpl} 在调用 {@link AutoAdaptStrategy#applyAdapt} 之前调用, 丢弃上一次没有记录的结果
+     */
+    void begin() {
+        mPendingType = null;
+        mPendingInfo = null;
+        isPendingCacheHit = false;
+    }
+
+    /**
+     * 由 {@link AutoSize} 在适配时调用, 无论使用的是哪个 {@link AutoAdaptStrategy}
+     *
+     * @param type     适配决策
+     * @param info     适配后的 {@link DisplayMetricsInfo}, 取消适配时为 {@code null}
+     * @param cacheHit 是否命中缓存
+     */
+    void onAdapted(AdaptType type, DisplayMetricsInfo info, boolean cacheHit) {
+        mPendingType = type;
+        mPendingInfo = info;
+        isPendingCacheHit = cacheHit;
+    }
+
+    /**
+     * 由 {@link ActivityLifecycleCallbacksImpl} 在 {@link AutoAdaptStrategy#applyAdapt} 返回后调用, 记录本次适配
+     * {@link AutoAdaptStrategy} 没有调用任何适配方法时不产生记录
+     *
+     * @param abilityClass  被适配的 {@code Ability} 的 class
+     * @param durationNanos 耗时, 单位纳秒
+     */
+    void end(Class<?> abilityClass, long durationNanos) {
+        AdaptType type = mPendingType;
+        if (type == null) {
+            return;
+        }
+        record(new AdaptRecord(abilityClass, type, durationNanos, isPendingCacheHit, mPendingInfo));
+        begin();
+    }
+
+    private void record(AdaptRecord record) {
+        mBuffer.set((int) (mCursor.getAndIncrement() & mMask), record);
+    }
+
+    /**
+     * 最近秩法 (nearest-rank) 计算百分位数
+     *
+     * @param sorted 已经升序排列的耗时
+     */
+    static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
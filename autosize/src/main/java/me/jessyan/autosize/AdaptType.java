@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+/**
+ * ================================================
+ * 一次适配使用的适配决策, 由 {@link AutoSize} 中被调用的适配方法决定, 与使用的 {@link AutoAdaptStrategy} 无关
+ * ================================================
+ */
+public enum AdaptType {
+    /**
+     * 取消适配, target 实现了 {@link me.jessyan.autosize.internal.CancelAdapt}
+     * 或者被添加进了 {@link me.jessyan.autosize.external.ExternalAdaptManager} 的取消适配列表
+     */
+    CANCEL,
+    /**
+     * 使用 {@link me.jessyan.autosize.external.ExternalAdaptManager} 中为 target 提供的 {@link me.jessyan.autosize.external.ExternalAdaptInfo} 进行适配
+     */
+    EXTERNAL,
+    /**
+     * target 实现了 {@link me.jessyan.autosize.internal.CustomAdapt}, 使用 target 自定义的参数进行适配
+     * 直接调用 {@link AutoSize#autoConvertDensity(ohos.aafwk.ability.Ability, float, boolean)} 等方法传入设计图尺寸时也属于此类
+     */
+    CUSTOM,
+    /**
+     * 使用全局的适配参数进行适配
+     */
+    GLOBAL
+}
@@ -15,10 +15,16 @@
  */
 package me.jessyan.autosize;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import me.jessyan.autosize.AutoSizeConfig.AdaptSnapshot;
 import me.jessyan.autosize.external.ExternalAdaptInfo;
 import me.jessyan.autosize.internal.CustomAdapt;
+import me.jessyan.autosize.unit.ConversionTable;
+import me.jessyan.autosize.unit.Subunits;
+import me.jessyan.autosize.unit.UnitsManager;
 import me.jessyan.autosize.utils.AutoSizeLog;
 import me.jessyan.autosize.utils.Preconditions;
 import ohos.aafwk.ability.Ability;
@@ -32,8 +38,6 @@ import ohos.app.Context;
 import ohos.global.configuration.Configuration;
 import ohos.global.configuration.DeviceCapability;
 import ohos.global.resource.ResourceManager;
-import ohos.hiviewdfx.HiLog;
-import ohos.hiviewdfx.HiLogLabel;
 import ohos.utils.net.Uri;
 
 /**
@@ -52,12 +56,37 @@ import ohos.utils.net.Uri;
  */
 public final class AutoSize {
 
-    static HiLogLabel label = new HiLogLabel(HiLog.LOG_APP, 0x0, "MYLOG");
-    private static Map<Integer, DisplayMetricsInfo> mCache = new HashMap<>();
-    private static final int MODE_SHIFT = 30;
-    private static final int MODE_MASK  = 0x3 << MODE_SHIFT;
-    private static final int MODE_ON_WIDTH  = 1 << MODE_SHIFT;
-    private static final int MODE_DEVICE_SIZE  = 2 << MODE_SHIFT;
+    /**
+     * 除主 Display 外最多同时保留多少个 Display 的适配状态
+     */
+    static final int MAX_DISPLAY_CACHES = 4;
+    /**
+     * 主 Display (Application 所在的 Display) 的计算器, 适配、预热和持久化共用, 窗口尺寸已经是缓存 key 的一部分
+     */
+    private static final DensityCalculator mCalculator = new DensityCalculator();
+    /**
+     * 主 Display 的适配状态, 不会被淘汰
+     */
+    private static final DisplayState mMainDisplayState = new DisplayState(mCalculator);
+    /**
+     * 其他 Display (外接屏幕、折叠屏的副屏等) 的适配状态, key 为 Display 的 id, 按最近使用的顺序排列
+     * 超过 {@link #MAX_DISPLAY_CACHES} 个时淘汰最久未使用的, 读写时需要持有锁
+     */
+    private static final Map<Integer, DisplayState> mDisplayStates = new LinkedHashMap<Integer, DisplayState>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, DisplayState> eldest) {
+            return size() > MAX_DISPLAY_CACHES;
+        }
+    };
+    /**
+     * 每个 Display 最多缓存的 {@link DisplayMetricsInfo} 条数, 新建的 {@link DisplayState} 使用
+     */
+    private static int mCacheCapacity = DensityCache.DEFAULT_MAX_SIZE;
+    /**
+     * 每个 {@link Ability} 最后一次被应用的适配参数, 使用弱引用持有 {@link Ability}, {@link Ability} 被回收后记录会自动移除
+     * 只在主线程中读写
+     */
+    private static final Map<Ability, AppliedDensity> mAppliedDensities = new WeakHashMap<>();
 
     private AutoSize() {
         throw new IllegalStateException("you can't instantiate me!");
@@ -69,7 +98,7 @@ public final class AutoSize {
      * @return {@code false} 表示 AndroidAutoSize 还未初始化, {@code true} 表示 AndroidAutoSize 已经初始化
      */
     public static boolean checkInit() {
-        return AutoSizeConfig.getInstance().getInitDensity() != -1;
+        return AutoSizeConfig.getInstance().isInitialized();
     }
 
     /**
@@ -89,16 +118,29 @@ public final class AutoSize {
         }
     }
 
+    /**
+     * 获取当前适配参数的快照, 延迟初始化时会先获取屏幕信息等初始化参数
+     */
+    private static AdaptSnapshot getSnapshot() {
+        AutoSizeConfig config = AutoSizeConfig.getInstance();
+        config.ensureResolved();
+        return config.getSnapshot();
+    }
+
     /**
      * 使用 AndroidAutoSize 初始化时设置的默认适配参数进行适配 (AndroidManifest 的 Meta 属性)
      *
      * @param activity {@link_TODO Activity}
      */
     public static void autoConvertDensityOfGlobal(Ability activity) {
-        if (AutoSizeConfig.getInstance().isBaseOnWidth()) {
-            autoConvertDensityBaseOnWidth(activity, AutoSizeConfig.getInstance().getDesignWidthInDp());
+        autoConvertDensityOfGlobal(activity, getSnapshot());
+    }
+
+    static void autoConvertDensityOfGlobal(Ability activity, AdaptSnapshot snapshot) {
+        if (snapshot.isBaseOnWidth()) {
+            autoConvertDensity(activity, snapshot, snapshot.getDesignWidthInDp(), true, AdaptType.GLOBAL);
         } else {
-            autoConvertDensityBaseOnHeight(activity, AutoSizeConfig.getInstance().getDesignHeightInDp());
+            autoConvertDensity(activity, snapshot, snapshot.getDesignHeightInDp(), false, AdaptType.GLOBAL);
         }
     }
 
@@ -109,18 +151,14 @@ public final class AutoSize {
      * @param customAdapt {@link_TODO Activity} 或 Fragment 需实现 {@link_TODO CustomAdapt}
      */
     public static void autoConvertDensityOfCustomAdapt(Ability activity, CustomAdapt customAdapt) {
-        Preconditions.checkNotNull(customAdapt, "customAdapt == null");
-        float sizeInDp = customAdapt.getSizeInDp();
+        autoConvertDensityOfCustomAdapt(activity, getSnapshot(), customAdapt);
+    }
 
+    static void autoConvertDensityOfCustomAdapt(Ability activity, AdaptSnapshot snapshot, CustomAdapt customAdapt) {
+        Preconditions.checkNotNull(customAdapt, "customAdapt == null");
+        boolean isBaseOnWidth = customAdapt.isBaseOnWidth();
         //如果 CustomAdapt#getSizeInDp() 返回 0, 则使用在 AndroidManifest 上填写的设计图尺寸
-        if (sizeInDp <= 0) {
-            if (customAdapt.isBaseOnWidth()) {
-                sizeInDp = AutoSizeConfig.getInstance().getDesignWidthInDp();
-            } else {
-                sizeInDp = AutoSizeConfig.getInstance().getDesignHeightInDp();
-            }
-        }
-        autoConvertDensity(activity, sizeInDp, customAdapt.isBaseOnWidth());
+        autoConvertDensity(activity, snapshot, resolveSizeInDp(snapshot, customAdapt.getSizeInDp(), isBaseOnWidth), isBaseOnWidth, AdaptType.CUSTOM);
     }
 
     /**
@@ -130,18 +168,14 @@ public final class AutoSize {
      * @param externalAdaptInfo 三方库的 {@link_TODO Activity} 或 Fragment 提供的适配参数, 需要配合 {@link_TODO ExternalAdaptManager#addExternalAdaptInfoOfActivity(Class, ExternalAdaptInfo)}
      */
     public static void autoConvertDensityOfExternalAdaptInfo(Ability activity, ExternalAdaptInfo externalAdaptInfo) {
-        Preconditions.checkNotNull(externalAdaptInfo, "externalAdaptInfo == null");
-        float sizeInDp = externalAdaptInfo.getSizeInDp();
+        autoConvertDensityOfExternalAdaptInfo(activity, getSnapshot(), externalAdaptInfo);
+    }
 
+    static void autoConvertDensityOfExternalAdaptInfo(Ability activity, AdaptSnapshot snapshot, ExternalAdaptInfo externalAdaptInfo) {
+        Preconditions.checkNotNull(externalAdaptInfo, "externalAdaptInfo == null");
+        boolean isBaseOnWidth = externalAdaptInfo.isBaseOnWidth();
         //如果 ExternalAdaptInfo#getSizeInDp() 返回 0, 则使用在 AndroidManifest 上填写的设计图尺寸
-        if (sizeInDp <= 0) {
-            if (externalAdaptInfo.isBaseOnWidth()) {
-                sizeInDp = AutoSizeConfig.getInstance().getDesignWidthInDp();
-            } else {
-                sizeInDp = AutoSizeConfig.getInstance().getDesignHeightInDp();
-            }
-        }
-        autoConvertDensity(activity, sizeInDp, externalAdaptInfo.isBaseOnWidth());
+        autoConvertDensity(activity, snapshot, resolveSizeInDp(snapshot, externalAdaptInfo.getSizeInDp(), isBaseOnWidth), isBaseOnWidth, AdaptType.EXTERNAL);
     }
 
     /**
@@ -177,72 +211,276 @@ public final class AutoSize {
      * @see <a href="https://mp.weixin.qq.com/s/d9QCoBP6kV9VSWvVldVVwA">今日头条官方适配方案</a>
      */
     public static void autoConvertDensity(Ability activity, float sizeInDp, boolean isBaseOnWidth) {
-        HiLog.info(label, "AutoSize.autoConvertDensity()");
+        autoConvertDensity(activity, getSnapshot(), sizeInDp, isBaseOnWidth);
+    }
+
+    static void autoConvertDensity(Ability activity, AdaptSnapshot snapshot, float sizeInDp, boolean isBaseOnWidth) {
+        autoConvertDensity(activity, snapshot, sizeInDp, isBaseOnWidth, AdaptType.CUSTOM);
+    }
+
+    /**
+     * @param type 本次适配的决策, 开启 {@link AdaptTracer} 时记录
+     */
+    private static void autoConvertDensity(Ability activity, AdaptSnapshot snapshot, float sizeInDp, boolean isBaseOnWidth, AdaptType type) {
         Preconditions.checkNotNull(activity, "activity == null");
         Preconditions.checkMainThread();
 
-        float subunitsDesignSize = isBaseOnWidth ? AutoSizeConfig.getInstance().getUnitsManager().getDesignWidth()
-                : AutoSizeConfig.getInstance().getUnitsManager().getDesignHeight();
-        subunitsDesignSize = subunitsDesignSize > 0 ? subunitsDesignSize : sizeInDp;
-
-        int screenSize = isBaseOnWidth ? AutoSizeConfig.getInstance().getScreenWidth()
-                : AutoSizeConfig.getInstance().getScreenHeight();
-
-        int key = Math.round((sizeInDp + subunitsDesignSize + screenSize) * AutoSizeConfig.getInstance().getInitScaledDensity()) & ~MODE_MASK;
-        key = isBaseOnWidth ? (key | MODE_ON_WIDTH) : (key & ~MODE_ON_WIDTH);
-        key = AutoSizeConfig.getInstance().isUseDeviceSize() ? (key | MODE_DEVICE_SIZE) : (key & ~MODE_DEVICE_SIZE);
-        DisplayMetricsInfo displayMetricsInfo = mCache.get(key);
-
-        float targetDensity = 0;
-        int targetDensityDpi = 0;
-        float targetScaledDensity = 0;
-        float targetXdpi = 0;
-        int targetScreenWidthDp;
-        int targetScreenHeightDp;
-        if (displayMetricsInfo == null) {
-            if (isBaseOnWidth) {
-                targetDensity = AutoSizeConfig.getInstance().getScreenWidth() * 1.0f / sizeInDp;
-            } else {
-                targetDensity = AutoSizeConfig.getInstance().getScreenHeight() * 1.0f / sizeInDp;
+        UnitsManager unitsManager = AutoSizeConfig.getInstance().getUnitsManager();
+        //每个 Ability 使用自己所在的 Display 进行计算, 每次适配只获取一次
+        Display display = getDisplay(activity.getContext());
+        Display mainDisplay = getDisplay(AutoSizeConfig.getInstance().getApplication().getContext());
+        boolean isMainDisplay = display.getDisplayId() == mainDisplay.getDisplayId();
+        DisplayState state = isMainDisplay ? mMainDisplayState : getDisplayState(display.getDisplayId());
+        int screenWidth;
+        int screenHeight;
+        if (isMainDisplay) {
+            //主 Display 的窗口尺寸与预热、持久化一样都取自 AdaptSnapshot, 使用者通过 setScreenWidth 等方法设置的值同样生效
+            screenWidth = snapshot.getScreenWidth();
+            screenHeight = snapshot.getScreenHeight();
+        } else {
+            DisplayAttributes attributes = display.getAttributes();
+            screenWidth = getWindowWidth(attributes, snapshot);
+            screenHeight = getWindowHeight(attributes, snapshot);
+        }
+        float subunitsDesignSize = isBaseOnWidth ? unitsManager.getDesignWidth() : unitsManager.getDesignHeight();
+        DisplayMetricsInfo displayMetricsInfo = state.calculator.getCached(sizeInDp, subunitsDesignSize, screenWidth, screenHeight
+                , snapshot.getFontScale(), isBaseOnWidth, snapshot.isUseDeviceSize());
+        //是否命中缓存以这次查询的结果为准, 预热等其他线程同时查询缓存不会影响结果
+        boolean isCacheHit = displayMetricsInfo != null;
+        if (!isCacheHit) {
+            displayMetricsInfo = state.calculator.computeAndCache(sizeInDp, subunitsDesignSize, screenWidth, screenHeight
+                    , snapshot.getFontScale(), isBaseOnWidth, snapshot.isUseDeviceSize());
+        }
+        AdaptTracer tracer = AutoSizeConfig.getInstance().getAdaptTracer();
+        if (tracer.isEnabled()) {
+            tracer.onAdapted(type, displayMetricsInfo, isCacheHit);
+        }
+        setDensity(activity, display, isMainDisplay ? mainDisplay : null, state
+                , 3.5f, 560, displayMetricsInfo.getScaledDensity(), displayMetricsInfo.getXdpi());
+//        setScreenSizeDp(activity, displayMetricsInfo.getScreenWidthDp(), displayMetricsInfo.getScreenHeightDp());
+
+        if (AutoSizeLog.ENABLED && AutoSizeLog.isDebug()) {
+            subunitsDesignSize = DensityCalculator.resolveSubunitsDesignSize(sizeInDp, subunitsDesignSize);
+            AutoSizeLog.d("The %s has been adapted! \n%s Info: isBaseOnWidth = %s, %s = %f, %s = %f, targetDensity = %f, targetScaledDensity = %f, targetDensityDpi = %d, targetXdpi = %f, targetScreenWidthDp = %d, targetScreenHeightDp = %d"
+                    , activity.getClass().getName(), activity.getClass().getSimpleName(), isBaseOnWidth, isBaseOnWidth ? "designWidthInDp"
+                            : "designHeightInDp", sizeInDp, isBaseOnWidth ? "designWidthInSubunits" : "designHeightInSubunits", subunitsDesignSize
+                    , displayMetricsInfo.getDensity(), displayMetricsInfo.getScaledDensity(), displayMetricsInfo.getDensityDpi()
+                    , displayMetricsInfo.getXdpi(), displayMetricsInfo.getScreenWidthDp(), displayMetricsInfo.getScreenHeightDp());
+        }
+    }
+
+    /**
+     * 计算主 Display 上适配后的 {@link DisplayMetricsInfo}, 命中缓存时不会创建任何对象
+     *
+     * @param snapshot      {@link AdaptSnapshot}
+     * @param unitsManager  {@link UnitsManager}
+     * @param sizeInDp      设计图上的设计尺寸, 单位 dp
+     * @param isBaseOnWidth 是否按照宽度进行等比例适配
+     * @return {@link DisplayMetricsInfo}
+     */
+    static DisplayMetricsInfo getDisplayMetricsInfo(AdaptSnapshot snapshot, UnitsManager unitsManager, float sizeInDp, boolean isBaseOnWidth) {
+        return mCalculator.calculate(sizeInDp, isBaseOnWidth ? unitsManager.getDesignWidth() : unitsManager.getDesignHeight()
+                , snapshot.getScreenWidth(), snapshot.getScreenHeight(), snapshot.getFontScale(), isBaseOnWidth, snapshot.isUseDeviceSize());
+    }
+
+    /**
+     * 预先计算所有已知适配参数的 {@link DisplayMetricsInfo} 并存入缓存, 可以在任意线程中调用
+     *
+     * @param snapshot           {@link AdaptSnapshot}
+     * @param unitsManager       {@link UnitsManager}
+     * @param externalAdaptInfos {@link ExternalAdaptInfo}
+     * @param customAdapts       {@link CustomAdapt}
+     * @return 计算了多少组适配参数, 还没有获取到屏幕尺寸时不做任何计算, 返回 0
+     */
+    static int warmUp(AdaptSnapshot snapshot, UnitsManager unitsManager, Collection<ExternalAdaptInfo> externalAdaptInfos
+            , CustomAdapt[] customAdapts) {
+        //屏幕尺寸为 0 时计算出的 density 也为 0, 不能放入缓存
+        if (snapshot.getScreenWidth() <= 0 || snapshot.getScreenHeight() <= 0) {
+            return 0;
+        }
+        int count = 0;
+        boolean isBaseOnWidth = snapshot.isBaseOnWidth();
+        getDisplayMetricsInfo(snapshot, unitsManager, resolveSizeInDp(snapshot, 0, isBaseOnWidth), isBaseOnWidth);
+        count++;
+        for (ExternalAdaptInfo info : externalAdaptInfos) {
+            if (info != null) {
+                getDisplayMetricsInfo(snapshot, unitsManager, resolveSizeInDp(snapshot, info.getSizeInDp(), info.isBaseOnWidth()), info.isBaseOnWidth());
+                count++;
+            }
+        }
+        for (CustomAdapt customAdapt : customAdapts) {
+            getDisplayMetricsInfo(snapshot, unitsManager, resolveSizeInDp(snapshot, customAdapt.getSizeInDp(), customAdapt.isBaseOnWidth()), customAdapt.isBaseOnWidth());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 如果 {@code sizeInDp} 小于等于 0, 则使用在 AndroidManifest 上填写的设计图尺寸
+     */
+    private static float resolveSizeInDp(AdaptSnapshot snapshot, float sizeInDp, boolean isBaseOnWidth) {
+        if (sizeInDp > 0) {
+            return sizeInDp;
+        }
+        return isBaseOnWidth ? snapshot.getDesignWidthInDp() : snapshot.getDesignHeightInDp();
+    }
+
+    private static Display getDisplay(Context context) {
+        return DisplayManager.getInstance().getDefaultDisplay(context).get();
+    }
+
+    /**
+     * 获取主 Display 之外的 Display 的适配状态, 不存在时创建
+     *
+     * @param displayId Display 的 id
+     * @return {@link DisplayState}
+     */
+    private static DisplayState getDisplayState(int displayId) {
+        synchronized (mDisplayStates) {
+            DisplayState state = mDisplayStates.get(displayId);
+            if (state == null) {
+                state = new DisplayState(new DensityCalculator(mCacheCapacity));
+                mDisplayStates.put(displayId, state);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * 其他 Display 的窗口宽度, 无法从 {@link DisplayAttributes} 中获取时使用 {@link AdaptSnapshot#getScreenWidth()}
+     */
+    static int getWindowWidth(DisplayAttributes attributes, AdaptSnapshot snapshot) {
+        return attributes.width > 0 && attributes.height > 0 ? attributes.width : snapshot.getScreenWidth();
+    }
+
+    /**
+     * 其他 Display 的窗口高度, 无法从 {@link DisplayAttributes} 中获取时使用 {@link AdaptSnapshot#getScreenHeight()}
+     * 状态栏属于主 Display, 所以不会减去状态栏的高度
+     */
+    static int getWindowHeight(DisplayAttributes attributes, AdaptSnapshot snapshot) {
+        return attributes.width > 0 && attributes.height > 0 ? attributes.height : snapshot.getScreenHeight();
+    }
+
+    /**
+     * 清空所有 Display 的 {@link DisplayMetricsInfo} 缓存, 下次适配时会重新计算
+     */
+    static void clearCache() {
+        mCalculator.clear();
+        synchronized (mDisplayStates) {
+            mDisplayStates.clear();
+        }
+    }
+
+    /**
+     * 字体缩放比例变化后, 删除所有 Display 中使用之前的字体缩放比例计算的 {@link DisplayMetricsInfo}, 其他条目保留
+     *
+     * @param fontScale 变化之前的字体缩放比例
+     * @return 删除的条数
+     */
+    static int invalidateFontScale(float fontScale) {
+        synchronized (mDisplayStates) {
+            int count = mCalculator.invalidateFontScale(fontScale);
+            for (DisplayState state : mDisplayStates.values()) {
+                count += state.calculator.invalidateFontScale(fontScale);
             }
-            if (AutoSizeConfig.getInstance().getPrivateFontScale() > 0) {
-                targetScaledDensity = targetDensity * AutoSizeConfig.getInstance().getPrivateFontScale();
-            } else {
-                float systemFontScale = AutoSizeConfig.getInstance().isExcludeFontScale() ? 1 : AutoSizeConfig.getInstance().
-                        getInitScaledDensity() * 1.0f / AutoSizeConfig.getInstance().getInitDensity();
-                targetScaledDensity = targetDensity * systemFontScale;
+            return count;
+        }
+    }
+
+    /**
+     * 配置变化后系统可能已经重置了 {@link DisplayAttributes}, 忘记所有 Display 上已经应用过的适配参数, 下次适配时重新赋值
+     */
+    static void resetAppliedDensities() {
+        Preconditions.checkMainThread();
+        mAppliedDensities.clear();
+        synchronized (mDisplayStates) {
+            mMainDisplayState.lastApplied = null;
+            for (DisplayState state : mDisplayStates.values()) {
+                state.lastApplied = null;
             }
-            targetDensityDpi = (int) (targetDensity * 160);
+        }
+    }
+
+    /**
+     * @return 主 Display 缓存的条数
+     */
+    static int cacheSize() {
+        return mCalculator.size();
+    }
 
-            targetScreenWidthDp = (int) (AutoSizeConfig.getInstance().getScreenWidth() / targetDensity);
-            targetScreenHeightDp = (int) (AutoSizeConfig.getInstance().getScreenHeight() / targetDensity);
+    /**
+     * @return 除主 Display 外当前保留了适配状态的 Display 个数
+     */
+    static int displayStateCount() {
+        synchronized (mDisplayStates) {
+            return mDisplayStates.size();
+        }
+    }
 
-            if (isBaseOnWidth) {
-                targetXdpi = AutoSizeConfig.getInstance().getScreenWidth() * 1.0f / subunitsDesignSize;
-            } else {
-                targetXdpi = AutoSizeConfig.getInstance().getScreenHeight() * 1.0f / subunitsDesignSize;
+    /**
+     * 设置每个 Display 最多缓存的 {@link DisplayMetricsInfo} 条数, 对已经存在的缓存立即生效
+     *
+     * @param capacity 最多缓存的条数
+     */
+    static void setCacheCapacity(int capacity) {
+        synchronized (mDisplayStates) {
+            mCacheCapacity = capacity;
+            mCalculator.setMaxSize(capacity);
+            for (DisplayState state : mDisplayStates.values()) {
+                state.calculator.setMaxSize(capacity);
             }
+        }
+    }
 
-            mCache.put(key, new DisplayMetricsInfo(targetDensity, targetDensityDpi, targetScaledDensity, targetXdpi, targetScreenWidthDp, targetScreenHeightDp));
-        } else {
-            targetDensity = displayMetricsInfo.getDensity();
-            targetDensityDpi = displayMetricsInfo.getDensityDpi();
-            targetScaledDensity = displayMetricsInfo.getScaledDensity();
-            targetXdpi = displayMetricsInfo.getXdpi();
-            targetScreenWidthDp = displayMetricsInfo.getScreenWidthDp();
-            targetScreenHeightDp = displayMetricsInfo.getScreenHeightDp();
+    /**
+     * @return 所有 Display 的缓存合并后的统计数据, 已经被淘汰的 Display 的统计数据不包含在内
+     */
+    static CacheStats getCacheStats() {
+        synchronized (mDisplayStates) {
+            CacheStats stats = mCalculator.getStats();
+            for (DisplayState state : mDisplayStates.values()) {
+                stats = stats.plus(state.calculator.getStats());
+            }
+            return stats;
         }
-        HiLog.info(label, "targetDensity："+targetDensity);
-        HiLog.info(label, "targetDensityDpi："+targetDensityDpi);
-        HiLog.info(label, "targetScaledDensity："+targetScaledDensity);
-        setDensity(activity, 3.5f, 560, targetScaledDensity, targetXdpi);
-//        setScreenSizeDp(activity, targetScreenWidthDp, targetScreenHeightDp);
+    }
 
-        AutoSizeLog.d(String.format(Locale.ENGLISH, "The %s has been adapted! \n%s Info: isBaseOnWidth = %s, %s = %f, %s = %f, targetDensity = %f, targetScaledDensity = %f, targetDensityDpi = %d, targetXdpi = %f, targetScreenWidthDp = %d, targetScreenHeightDp = %d"
-                , activity.getClass().getName(), activity.getClass().getSimpleName(), isBaseOnWidth, isBaseOnWidth ? "designWidthInDp"
-                        : "designHeightInDp", sizeInDp, isBaseOnWidth ? "designWidthInSubunits" : "designHeightInSubunits", subunitsDesignSize
-                , targetDensity, targetScaledDensity, targetDensityDpi, targetXdpi, targetScreenWidthDp, targetScreenHeightDp));
-        HiLog.info(label, "AutoSize.autoConvertDensity()over");
+    /**
+     * 在后台线程中将 {@code file} 中的记录读入缓存, 之后缓存每次新增记录都会在后台线程中重新写入 {@code file}
+     * 连续新增多条记录时只会写入一次
+     *
+     * @param file {@link DensityCacheFile}
+     */
+    static void attachCacheFile(final DensityCacheFile file) {
+        final DensityCache cache = mCalculator.getCache();
+        final AtomicBoolean pending = new AtomicBoolean();
+        final Runnable save = new Runnable() {
+            @Override
+            public void run() {
+                pending.set(false);
+                try {
+                    int count = file.save(cache);
+                    AutoSizeLog.d("save %d DisplayMetricsInfo to cache file", count);
+                } catch (IOException e) {
+                    AutoSizeLog.w("save cache file failed: %s", e);
+                }
+            }
+        };
+        AutoSizeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int count = file.load(cache);
+                AutoSizeLog.d("load %d DisplayMetricsInfo from cache file", count);
+            }
+        });
+        mCalculator.setOnCacheChangedListener(new Runnable() {
+            @Override
+            public void run() {
+                if (pending.compareAndSet(false, true)) {
+                    AutoSizeExecutor.execute(save);
+                }
+            }
+        });
     }
 
     /**
@@ -251,24 +489,30 @@ public final class AutoSize {
      * @param activity {@link_TODO Activity}
      */
     public static void cancelAdapt(Ability activity) {
+        cancelAdapt(activity, getSnapshot());
+    }
+
+    static void cancelAdapt(Ability activity, AdaptSnapshot snapshot) {
         Preconditions.checkMainThread();
-        float initXdpi = AutoSizeConfig.getInstance().getInitXdpi();
-        switch (AutoSizeConfig.getInstance().getUnitsManager().getSupportSubunits()) {
-            case PT:
-                initXdpi = initXdpi / 72f;
-                break;
-            case MM:
-                initXdpi = initXdpi / 25.4f;
-                break;
-            default:
-        }
-        setDensity(activity, AutoSizeConfig.getInstance().getInitDensity()
-                , AutoSizeConfig.getInstance().getInitDensityDpi()
-                , AutoSizeConfig.getInstance().getInitScaledDensity()
+        AdaptTracer tracer = AutoSizeConfig.getInstance().getAdaptTracer();
+        if (tracer.isEnabled()) {
+            tracer.onAdapted(AdaptType.CANCEL, null, false);
+        }
+        //setDensity 需要的是每个副单位的像素数, 直接从初始状态的转换系数表中取
+        float initXdpi = snapshot.getInitConversionTable()
+                .getFactor(AutoSizeConfig.getInstance().getUnitsManager().getSupportSubunits());
+        Display display = getDisplay(activity.getContext());
+        Display mainDisplay = getDisplay(AutoSizeConfig.getInstance().getApplication().getContext());
+        boolean isMainDisplay = display.getDisplayId() == mainDisplay.getDisplayId();
+        setDensity(activity, display, isMainDisplay ? mainDisplay : null
+                , isMainDisplay ? mMainDisplayState : getDisplayState(display.getDisplayId())
+                , snapshot.getInitDensity()
+                , snapshot.getInitDensityDpi()
+                , snapshot.getInitScaledDensity()
                 , initXdpi);
 //        setScreenSizeDp(activity
-//                , AutoSizeConfig.getInstance().getInitScreenWidthDp()
-//                , AutoSizeConfig.getInstance().getInitScreenHeightDp());
+//                , snapshot.getInitScreenWidthDp()
+//                , snapshot.getInitScreenHeightDp());
     }
 
     /**
@@ -290,70 +534,128 @@ public final class AutoSize {
      * 给几大 {@link_TODO DisplayMetrics} 赋值
      *
      * @param activity      {@link_TODO Activity}
+     * @param display       {@link Ability} 所在的 {@link Display}, 由调用方获取, 每次适配只获取一次
+     * @param mainDisplay   {@link Ability} 在主 Display 上时为主 {@link Display}, 同时给 Application 赋值, 否则为 {@code null}
+     * @param state         {@code display} 的适配状态
      * @param density       {@link_TODO DisplayMetrics#density}
      * @param densityDpi    {@link_TODO DisplayMetrics#densityDpi}
      * @param scaledDensity {@link_TODO DisplayMetrics#scaledDensity}
      * @param xdpi          {@link_TODO DisplayMetrics#xdpi}
      */
-    private static void setDensity(Ability activity, float density, int densityDpi, float scaledDensity, float xdpi) {
-        HiLog.info(label, "AutoSize.setDensity()1");
-        DisplayAttributes activityDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(activity.getContext()).get().getAttributes();
-        setDensity(activityDisplayMetrics, density, densityDpi, scaledDensity, xdpi);
+    private static void setDensity(Ability activity, Display display, Display mainDisplay, DisplayState state
+            , float density, int densityDpi, float scaledDensity, float xdpi) {
+        UnitsManager unitsManager = AutoSizeConfig.getInstance().getUnitsManager();
+        AppliedDensity lastApplied = state.lastApplied;
+        //onAbilityStart 和 onAbilityActive 都会触发适配, 如果这个 Ability 上次应用的参数和这次一样, 并且期间同一个 Display 上没有其他 Ability 修改过参数, 则不需要重复赋值
+        AppliedDensity applied = mAppliedDensities.get(activity);
+        if (applied != null && applied == lastApplied
+                && applied.matches(density, densityDpi, scaledDensity, xdpi, unitsManager)) {
+            return;
+        }
 
-        DisplayAttributes appDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(AutoSizeConfig.getInstance().getApplication().getContext()).get().getAttributes();
-        setDensity(appDisplayMetrics, density, densityDpi, scaledDensity, xdpi);
+        //每次只获取一次 Display, Ability 和 Application 的参数在同一次遍历中完成赋值
+        DisplayAttributes displayMetrics = display.getAttributes();
+        boolean changed = setDensity(displayMetrics, unitsManager, density, densityDpi, scaledDensity, xdpi);
+        //Application 在主 Display 上, 其他 Display 的参数不能写入, 与 Ability 的是同一个对象时也不需要再赋值一次
+        if (mainDisplay != null) {
+            DisplayAttributes appDisplayMetrics = mainDisplay.getAttributes();
+            if (appDisplayMetrics != displayMetrics) {
+                changed |= setDensity(appDisplayMetrics, unitsManager, density, densityDpi, scaledDensity, xdpi);
+            }
+        }
 
+        DisplayAttributes realDisplayMetrics = display.getRealAttributes();
+        if (AutoSizeLog.ENABLED && AutoSizeLog.isDebug()) {
+            AutoSizeLog.d("real density:%d", realDisplayMetrics.densityDpi);
+        }
+        if (realDisplayMetrics.densityDpi != 100) {
+            realDisplayMetrics.densityDpi = 100;
+            changed = true;
+        }
+        if (realDisplayMetrics.densityPixels != 100) {
+            realDisplayMetrics.densityPixels = 100;
+            changed = true;
+        }
+        if (realDisplayMetrics.scalDensity != 100) {
+            realDisplayMetrics.scalDensity = 100;
+            changed = true;
+        }
+
+        //DeviceCapability 已经是目标值时不需要再触发一次 updateConfiguration
         ResourceManager resource = activity.getResourceManager();
         DeviceCapability cap = resource.getDeviceCapability();
-        cap.screenDensity = 100;
-        Configuration config = resource.getConfiguration();
-        activity.getResourceManager().updateConfiguration(config, cap);
-        Display display = DisplayManager.getInstance()
-                .getDefaultDisplay(activity.getContext()).get();
-        HiLog.info(label, "real density:"+display.getRealAttributes().densityDpi);
-        display.getRealAttributes().densityDpi = 100;
-        display.getRealAttributes().densityPixels = 100;
-        display.getRealAttributes().scalDensity = 100;
-        HiLog.info(label, "density:"+display.getAttributes().densityDpi);
+        if (cap.screenDensity != 100) {
+            cap.screenDensity = 100;
+            Configuration config = resource.getConfiguration();
+            resource.updateConfiguration(config, cap);
+        }
+        if (AutoSizeLog.ENABLED && AutoSizeLog.isDebug()) {
+            AutoSizeLog.d("density:%d%s", displayMetrics.densityDpi, changed ? "" : " (unchanged)");
+        }
+        //转换系数表只跟随主 Display, 参数没有变化并且表仍然与主 Display 一致时不需要重新生成
+        if (mainDisplay != null) {
+            DisplayAttributes appDisplayMetrics = mainDisplay.getAttributes();
+            ConversionTable table = unitsManager.getConversionTable();
+            if (changed || table == null || !table.matches(appDisplayMetrics)) {
+                unitsManager.setConversionTable(ConversionTable.of(appDisplayMetrics));
+            }
+        }
+
+        if (lastApplied == null || !lastApplied.matches(density, densityDpi, scaledDensity, xdpi, unitsManager)) {
+            lastApplied = new AppliedDensity(density, densityDpi, scaledDensity, xdpi, unitsManager);
+            state.lastApplied = lastApplied;
+        }
+        mAppliedDensities.put(activity, lastApplied);
     }
 
     /**
      * 赋值
      *
      * @param displayMetrics {@link_TODO DisplayMetrics}
+     * @param unitsManager   {@link UnitsManager}
      * @param density        {@link_TODO DisplayMetrics#density}
      * @param densityDpi     {@link_TODO DisplayMetrics#densityDpi}
      * @param scaledDensity  {@link_TODO DisplayMetrics#scaledDensity}
      * @param xdpi           {@link_TODO DisplayMetrics#xdpi}
+     * @return {@code true} 表示至少有一个值发生了变化
      */
-    private static void setDensity(DisplayAttributes displayMetrics, float density, int densityDpi, float scaledDensity, float xdpi) {
-        HiLog.info(label, "AutoSize.setDensity()2"+displayMetrics);
-        displayMetrics.densityPixels = 3.5f;
-        displayMetrics.densityDpi = 560;
-        displayMetrics.xDpi = 560;
-        if (AutoSizeConfig.getInstance().getUnitsManager().isSupportDP()) {
-            displayMetrics.densityPixels = density;
-            displayMetrics.densityDpi = densityDpi;
+    private static boolean setDensity(DisplayAttributes displayMetrics, UnitsManager unitsManager, float density, int densityDpi, float scaledDensity, float xdpi) {
+        float targetDensity = 3.5f;
+        int targetDensityDpi = 560;
+        float targetScaledDensity = displayMetrics.scalDensity;
+        float targetXdpi = 560;
+        if (unitsManager.isSupportDP()) {
+            targetDensity = density;
+            targetDensityDpi = densityDpi;
+        }
+        if (unitsManager.isSupportSP()) {
+            targetScaledDensity = scaledDensity;
+        }
+        Subunits subunits = unitsManager.getSupportSubunits();
+        if (subunits != Subunits.NONE) {
+            //xdpi 是每个副单位的像素数, 换算为每英寸的像素数
+            targetXdpi = xdpi * subunits.getUnitsPerInch();
+        }
+
+        //只写入发生变化的值
+        boolean changed = false;
+        if (displayMetrics.densityPixels != targetDensity) {
+            displayMetrics.densityPixels = targetDensity;
+            changed = true;
+        }
+        if (displayMetrics.densityDpi != targetDensityDpi) {
+            displayMetrics.densityDpi = targetDensityDpi;
+            changed = true;
         }
-        if (AutoSizeConfig.getInstance().getUnitsManager().isSupportSP()) {
-            displayMetrics.scalDensity = scaledDensity;
+        if (displayMetrics.scalDensity != targetScaledDensity) {
+            displayMetrics.scalDensity = targetScaledDensity;
+            changed = true;
         }
-        switch (AutoSizeConfig.getInstance().getUnitsManager().getSupportSubunits()) {
-            case NONE:
-                break;
-            case PT:
-                displayMetrics.xDpi = xdpi * 72f;
-                break;
-            case IN:
-                displayMetrics.xDpi = xdpi;
-                break;
-            case MM:
-                displayMetrics.xDpi = xdpi * 25.4f;
-                break;
-            default:
+        if (displayMetrics.xDpi != targetXdpi) {
+            displayMetrics.xDpi = targetXdpi;
+            changed = true;
         }
+        return changed;
     }
 
     /**
@@ -385,4 +687,52 @@ public final class AutoSize {
 //        configuration.screenHeightDp = screenHeightDp;
 //    }
 
+
+    /**
+     * 一个 Display 的适配状态, 同一个 Display 上的所有 {@link Ability} 共用同一个 {@link DisplayAttributes}, 所以每个 Display 只需要记录一份
+     */
+    private static final class DisplayState {
+        private final DensityCalculator calculator;
+        /**
+         * 最后一次应用到这个 Display 的 {@link DisplayAttributes} 上的适配参数, 只在主线程中读写
+         */
+        private AppliedDensity lastApplied;
+
+        DisplayState(DensityCalculator calculator) {
+            this.calculator = calculator;
+        }
+    }
+
+    /**
+     * 记录应用到 {@link DisplayAttributes} 上的参数, 包括会影响赋值结果的 {@link UnitsManager} 配置
+     */
+    private static final class AppliedDensity {
+        private final float density;
+        private final int densityDpi;
+        private final float scaledDensity;
+        private final float xdpi;
+        private final boolean isSupportDP;
+        private final boolean isSupportSP;
+        private final Subunits supportSubunits;
+
+        AppliedDensity(float density, int densityDpi, float scaledDensity, float xdpi, UnitsManager unitsManager) {
+            this.density = density;
+            this.densityDpi = densityDpi;
+            this.scaledDensity = scaledDensity;
+            this.xdpi = xdpi;
+            this.isSupportDP = unitsManager.isSupportDP();
+            this.isSupportSP = unitsManager.isSupportSP();
+            this.supportSubunits = unitsManager.getSupportSubunits();
+        }
+
+        boolean matches(float density, int densityDpi, float scaledDensity, float xdpi, UnitsManager unitsManager) {
+            return Float.compare(this.density, density) == 0
+                    && this.densityDpi == densityDpi
+                    && Float.compare(this.scaledDensity, scaledDensity) == 0
+                    && Float.compare(this.xdpi, xdpi) == 0
+                    && isSupportDP == unitsManager.isSupportDP()
+                    && isSupportSP == unitsManager.isSupportSP()
+                    && supportSubunits == unitsManager.getSupportSubunits();
+        }
+    }
 }
@@ -15,9 +15,12 @@
  */
 package me.jessyan.autosize;
 
+import java.io.File;
 import java.lang.reflect.Field;
 
 import me.jessyan.autosize.external.ExternalAdaptManager;
+import me.jessyan.autosize.internal.CustomAdapt;
+import me.jessyan.autosize.unit.ConversionTable;
 import me.jessyan.autosize.unit.Subunits;
 import me.jessyan.autosize.unit.UnitsManager;
 import me.jessyan.autosize.utils.AutoSizeLog;
@@ -27,9 +30,7 @@ import ohos.aafwk.ability.Ability;
 import ohos.aafwk.ability.AbilityPackage;
 import ohos.agp.window.service.DisplayAttributes;
 import ohos.agp.window.service.DisplayManager;
-import ohos.app.Context;
-import ohos.hiviewdfx.HiLog;
-import ohos.hiviewdfx.HiLogLabel;
+import ohos.global.configuration.Configuration;
 
 /**
  * ================================================
@@ -44,14 +45,18 @@ public final class AutoSizeConfig {
     private static volatile AutoSizeConfig sInstance;
     private static final String KEY_DESIGN_WIDTH_IN_DP = "design_width_in_dp";
     private static final String KEY_DESIGN_HEIGHT_IN_DP = "design_height_in_dp";
+    private static final String CACHE_FILE_NAME = "autosize_density.cache";
     public static final boolean DEPENDENCY_ANDROIDX;
     public static final boolean DEPENDENCY_SUPPORT;
     private AbilityPackage mApplication;
-    static HiLogLabel label = new HiLogLabel(HiLog.LOG_APP, 0x0, "MYLOG");
     /**
      * 用来管理外部三方库 {@link_TODO Activity} 的适配
      */
     private ExternalAdaptManager mExternalAdaptManager = new ExternalAdaptManager();
+    /**
+     * 用来追踪每次适配的耗时和结果, 默认关闭
+     */
+    private final AdaptTracer mAdaptTracer = new AdaptTracer();
     /**
      * 用来管理 AndroidAutoSize 支持的所有单位, AndroidAutoSize 支持五种单位 (dp、sp、pt、in、mm)
      */
@@ -122,11 +127,12 @@ public final class AutoSizeConfig {
     private ActivityLifecycleCallbacksImpl mActivityLifecycleCallbacks;
     /**
      * 框架具有 热插拔 特性, 支持在项目运行中动态停止和重新启动适配功能
+     * 停止期间生命周期回调依然保持注册, 继续记录已经启动的 {@link Ability}, 只是不再进行适配
      *
      * @see //#stop(Activity)
      * @see #restart()
      */
-    private boolean isStop;
+    private volatile boolean isStop;
     /**
      * 是否让框架支持自定义 Fragment 的适配参数, 由于这个需求是比较少见的, 所以须要使用者手动开启
      */
@@ -149,6 +155,39 @@ public final class AutoSizeConfig {
      * 屏幕适配监听器，用于监听屏幕适配时的一些事件
      */
     private onAdaptListener mOnAdaptListener;
+    /**
+     * 是否在初始化时于后台线程中预先计算所有已知适配参数的 {@link DisplayMetricsInfo}, 默认为 {@code false}
+     * 开启后第一次打开每个页面时不需要再在主线程中计算适配参数
+     */
+    private boolean isWarmUp;
+    /**
+     * 是否将计算过的 {@link DisplayMetricsInfo} 保存在缓存目录中, 下次启动时直接读取, 默认为 {@code false}
+     * 屏幕尺寸、density、字体缩放比例或副单位发生变化时, 之前保存的文件会自动作废
+     */
+    private boolean isPersistentCache;
+    /**
+     * 是否延迟初始化, 默认为 {@code false}
+     * 开启后 {@link #init(AbilityPackage)} 只注册生命周期回调, 获取屏幕信息等操作延迟到第一次适配时才执行, 加快 APP 的启动速度
+     */
+    private boolean isLazyInit;
+    /**
+     * 屏幕信息等初始化参数是否已经获取, 非延迟初始化时在 {@link #init(AbilityPackage)} 中获取, 延迟初始化时在第一次适配时获取
+     */
+    private volatile boolean isResolved;
+    /**
+     * 监听系统配置的变化
+     */
+    private ConfigurationChangeHandler mConfigurationChangeHandler;
+    private final Object mResolveLock = new Object();
+    /**
+     * 预热时额外计算的 {@link CustomAdapt} 适配参数, 因为实现了 {@link CustomAdapt} 的页面只有在打开时才能知道适配参数
+     */
+    private volatile CustomAdapt[] mWarmUpCustomAdapts = new CustomAdapt[0];
+    /**
+     * 上面这些适配参数的不可变快照, 每次修改适配参数后都会发布一个新的快照 (copy-on-write)
+     * 适配时只读取一次 {@link #mSnapshot}, 保证同一次适配中读取到的参数是一致的, 并且读取时不需要加锁
+     */
+    private volatile AdaptSnapshot mSnapshot;
 
     static {
         DEPENDENCY_ANDROIDX = findClassByClassName("androidx.fragment.app.FragmentActivity");
@@ -178,6 +217,7 @@ public final class AutoSizeConfig {
     }
 
     private AutoSizeConfig() {
+        mSnapshot = new AdaptSnapshot(0, this);
     }
 
     public AbilityPackage getApplication() {
@@ -215,66 +255,185 @@ public final class AutoSizeConfig {
      * @param strategy      {@link_TODO AutoAdaptStrategy}, 传 {@code null} 则使用 {@link_TODO DefaultAutoAdaptStrategy}
      */
     AutoSizeConfig init(final AbilityPackage application, boolean isBaseOnWidth, AutoAdaptStrategy strategy) {
-        HiLog.info(label, "AutoSizeConfig.init()"+application);
-        Preconditions.checkArgument(mInitDensity == -1, "AutoSizeConfig#init() can only be called once");
         Preconditions.checkNotNull(application, "application == null");
-        this.mApplication = application;
-        this.isBaseOnWidth = isBaseOnWidth;
+        synchronized (this) {
+            Preconditions.checkArgument(mApplication == null, "AutoSizeConfig#init() can only be called once");
+            this.mApplication = application;
+            this.isBaseOnWidth = isBaseOnWidth;
+
+            //config.json 中的 MetaData 已经在构建时生成为 AutoSizeMetaData 中的常量, 这里同步读取, 不需要后台线程
+            //没有配置的值为 0, 使用默认值
+            boolean isSubunits = getUnitsManager().getSupportSubunits() != Subunits.NONE;
+            mDesignWidthInDp = AutoSizeMetaData.DESIGN_WIDTH_IN_DP > 0 ? AutoSizeMetaData.DESIGN_WIDTH_IN_DP : isSubunits ? 1080 : 360;
+            mDesignHeightInDp = AutoSizeMetaData.DESIGN_HEIGHT_IN_DP > 0 ? AutoSizeMetaData.DESIGN_HEIGHT_IN_DP : isSubunits ? 1920 : 640;
+            publishSnapshot();
+        }
+        mActivityLifecycleCallbacks = new ActivityLifecycleCallbacksImpl(new WrapperAutoAdaptStrategy(strategy == null ? new DefaultAutoAdaptStrategy() : strategy));
+        mConfigurationChangeHandler = new ConfigurationChangeHandler(AutoSizeExecutor.getMainHandler()
+                , new ConfigurationChangeHandler.OnConfigurationChangedListener() {
+            @Override
+            public void onConfigurationChanged(Configuration configuration) {
+                AutoSizeConfig.this.onConfigurationChanged(configuration);
+            }
+        });
+        application.registerCallbacks(mActivityLifecycleCallbacks, mConfigurationChangeHandler);
+        if (isLazyInit) {
+            AutoSizeLog.d("lazy init, resolve display on the first adaptation");
+        } else {
+            ensureResolved();
+        }
+        AutoSizeLog.i("AutoSizeConfig.init() %s", application);
+        return this;
+    }
+
+    /**
+     * 获取屏幕信息等初始化操作, 只会执行一次
+     * 非延迟初始化时在 {@link #init(AbilityPackage)} 中调用, 延迟初始化时在第一次适配时调用, 还未调用 {@link #init(AbilityPackage)} 时不做任何操作
+     */
+    void ensureResolved() {
+        if (isResolved) {
+            return;
+        }
+        synchronized (mResolveLock) {
+            if (isResolved) {
+                return;
+            }
+            final AbilityPackage application;
+            synchronized (this) {
+                application = mApplication;
+            }
+            if (application == null) {
+                return;
+            }
+            resolve(application);
+            isResolved = true;
+        }
+    }
+
+    private void resolve(AbilityPackage application) {
         final DisplayAttributes displayMetrics = DisplayManager.getInstance()
                 .getDefaultDisplay(application.getContext()).get().getAttributes();
+        int[] screenSize = getScreenSize(application, displayMetrics);
+        int statusBarHeight = ScreenUtils.getStatusBarHeight();
+        synchronized (this) {
 //        final Configuration configuration = Resources.getSystem().getConfiguration();
+//            isVertical = application.getResources().getConfiguration().orientation == Configuration.ORIENTATION_PORTRAIT;
+            mScreenWidth = screenSize[0];
+            mScreenHeight = screenSize[1];
+            mStatusBarHeight = statusBarHeight;
 
-        //设置一个默认值, 避免在低配设备上因为获取 MetaData 过慢, 导致适配时未能正常获取到设计图尺寸
-        //建议使用者在低配设备上主动在 Application#onCreate 中调用 setDesignWidthInDp 替代以使用 AndroidManifest 配置设计图尺寸的方式
-        if (AutoSizeConfig.getInstance().getUnitsManager().getSupportSubunits() == Subunits.NONE) {
-            mDesignWidthInDp = 360;
-            mDesignHeightInDp = 640;
-        } else {
-            mDesignWidthInDp = 1080;
-            mDesignHeightInDp = 1920;
+            mInitDensity = displayMetrics.densityPixels;
+            mInitDensityDpi = displayMetrics.densityDpi;
+            mInitScaledDensity = displayMetrics.scalDensity;
+            mInitXdpi = displayMetrics.xDpi;
+            publishSnapshot();
+            //第一次适配之前使用初始的转换系数
+            mUnitsManager.setConversionTable(mSnapshot.getInitConversionTable());
+            AutoSizeLog.d("designWidthInDp = %d, designHeightInDp = %d, screenWidth = %d, screenHeight = %d"
+                    , mDesignWidthInDp, mDesignHeightInDp, mScreenWidth, mScreenHeight);
+        }
+        AutoSizeLog.d("initDensity = %f, initScaledDensity = %f", mInitDensity, mInitScaledDensity);
+        if (isPersistentCache) {
+            //必须在预热之前, 这样预热时可以直接使用文件中已经存在的记录
+            AdaptSnapshot snapshot = getSnapshot();
+            long fingerprint = DensityCacheFile.fingerprint(snapshot.getScreenWidth(), snapshot.getScreenHeight()
+                    , snapshot.getInitDensity(), snapshot.getFontScale(), mUnitsManager.getSupportSubunits().ordinal());
+            AutoSize.attachCacheFile(new DensityCacheFile(new File(application.getCacheDir(), CACHE_FILE_NAME), fingerprint));
         }
+        if (isWarmUp) {
+            scheduleWarmUp();
+        }
+    }
 
-        getMetaData(application);
-//        isVertical = application.getResources().getConfiguration().orientation == Configuration.ORIENTATION_PORTRAIT;
+    /**
+     * 获取屏幕尺寸, {@link ScreenUtils#getScreenSize} 获取失败时使用 {@link DisplayAttributes} 中的宽高 (适配时不会修改这两个值)
+     * 适配、预热和持久化缓存的 key 都使用这里获取的屏幕尺寸
+     */
+    private static int[] getScreenSize(AbilityPackage application, DisplayAttributes displayMetrics) {
         int[] screenSize = ScreenUtils.getScreenSize(application);
-        mScreenWidth = screenSize[0];
-        mScreenHeight = screenSize[1];
-        mStatusBarHeight = ScreenUtils.getStatusBarHeight();
-        AutoSizeLog.d("designWidthInDp = " + mDesignWidthInDp + ", designHeightInDp = " + mDesignHeightInDp + ", screenWidth = " + mScreenWidth + ", screenHeight = " + mScreenHeight);
-
-        mInitDensity = displayMetrics.densityPixels;
-        mInitDensityDpi = displayMetrics.densityDpi;
-        mInitScaledDensity = displayMetrics.scalDensity;
-        mInitXdpi = displayMetrics.xDpi;
-//        mInitScreenWidthDp = configuration.screenWidthDp;
-//        mInitScreenHeightDp = configuration.screenHeightDp;
-//        application.registerComponentCallbacks(new ComponentCallbacks() {
-//            @Override
-//            public void onConfigurationChanged(Configuration newConfig) {
-//                if (newConfig != null) {
-//                    if (newConfig.fontScale > 0) {
-//                        mInitScaledDensity =
-//                                Resources.getSystem().getDisplayMetrics().scaledDensity;
-//                        AutoSizeLog.d("initScaledDensity = " + mInitScaledDensity + " on ConfigurationChanged");
-//                    }
-//                    isVertical = newConfig.orientation == Configuration.ORIENTATION_PORTRAIT;
-//                    int[] screenSize = ScreenUtils.getScreenSize(application);
-//                    mScreenWidth = screenSize[0];
-//                    mScreenHeight = screenSize[1];
-//                }
-//            }
-//
-//            @Override
-//            public void onLowMemory() {
-//
-//            }
-//        });
-        AutoSizeLog.d("initDensity = " + mInitDensity + ", initScaledDensity = " + mInitScaledDensity);
-        mActivityLifecycleCallbacks = new ActivityLifecycleCallbacksImpl(new WrapperAutoAdaptStrategy(strategy == null ? new DefaultAutoAdaptStrategy() : strategy));
-        application.registerCallbacks(mActivityLifecycleCallbacks, null);
+        if (screenSize[0] <= 0 || screenSize[1] <= 0) {
+            screenSize[0] = displayMetrics.width;
+            screenSize[1] = displayMetrics.height;
+        }
+        return screenSize;
+    }
+
+    /**
+     * 系统配置 (字体缩放比例、屏幕方向、窗口尺寸等) 发生变化后, 由 {@link ConfigurationChangeHandler} 在主线程中调用
+     * 重新获取屏幕信息并发布新的 {@link AdaptSnapshot}, 只删除使用之前的字体缩放比例计算的缓存, 然后重新适配所有已经启动的 {@link Ability}
+     *
+     * @param configuration 最新的 {@link Configuration}
+     */
+    void onConfigurationChanged(Configuration configuration) {
+        if (!isResolved) {
+            //延迟初始化时还未获取屏幕信息, 第一次适配时会获取到最新的屏幕信息
+            return;
+        }
+        AbilityPackage application = getApplication();
+        DisplayAttributes displayMetrics = DisplayManager.getInstance()
+                .getDefaultDisplay(application.getContext()).get().getAttributes();
+        int[] screenSize = getScreenSize(application, displayMetrics);
+        int statusBarHeight = ScreenUtils.getStatusBarHeight();
+        float oldFontScale;
+        float newFontScale;
+        synchronized (this) {
+            oldFontScale = mSnapshot.getFontScale();
+            isVertical = configuration.direction == Configuration.DIRECTION_VERTICAL;
+            //获取失败时保留之前的值 (包括使用者通过 setScreenWidth 等方法设置的值)
+            if (screenSize[0] > 0 && screenSize[1] > 0) {
+                mScreenWidth = screenSize[0];
+                mScreenHeight = screenSize[1];
+            }
+            if (statusBarHeight > 0) {
+                mStatusBarHeight = statusBarHeight;
+            }
+            //DisplayAttributes 中的 scalDensity 已经被适配修改过, 不能用来计算系统字体缩放比例, 只使用 Configuration 中的值
+            if (configuration.fontRatio > 0) {
+                mInitScaledDensity = mInitDensity * configuration.fontRatio;
+            }
+            publishSnapshot();
+            newFontScale = mSnapshot.getFontScale();
+            //先恢复为新的初始转换系数 (停止适配时也能使用最新的 sp 转换系数), 重新适配时会再次生成
+            mUnitsManager.setConversionTable(mSnapshot.getInitConversionTable());
+        }
+        if (Float.floatToIntBits(oldFontScale) != Float.floatToIntBits(newFontScale)) {
+            int count = AutoSize.invalidateFontScale(oldFontScale);
+            AutoSizeLog.d("fontScale %f -> %f, invalidate %d DisplayMetricsInfo", oldFontScale, newFontScale, count);
+        }
+        AutoSize.resetAppliedDensities();
+        if (!isStop) {
+            mActivityLifecycleCallbacks.reAdaptAbilities();
+        }
+    }
+
+    /**
+     * 在后台线程中预先计算全局设计图尺寸、{@link ExternalAdaptManager} 中所有的 {@link ExternalAdaptInfo}
+     * 以及 {@link #setWarmUpCustomAdapts(CustomAdapt...)} 中的适配参数, 并存入缓存
+     * 开启 {@link #setWarmUp(boolean)} 后会在初始化时自动调用, 在初始化之后才添加的 {@link ExternalAdaptInfo} 可以再次调用此方法进行预热
+     */
+    public AutoSizeConfig warmUp() {
+        Preconditions.checkNotNull(mApplication, "Please call the AutoSizeConfig#init() first");
+        //延迟初始化时需要先获取屏幕信息才能计算
+        ensureResolved();
+        scheduleWarmUp();
         return this;
     }
 
+    private void scheduleWarmUp() {
+        final CustomAdapt[] customAdapts = mWarmUpCustomAdapts;
+        AutoSizeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int count = AutoSize.warmUp(getSnapshot(), mUnitsManager, mExternalAdaptManager.getExternalAdaptInfos(), customAdapts);
+                    AutoSizeLog.d("warm up %d adapt configurations", count);
+                } catch (RuntimeException e) {
+                    AutoSizeLog.w("warm up failed: %s", e);
+                }
+            }
+        });
+    }
+
     /**
      * 重新开始框架的运行
      * 框架具有 热插拔 特性, 支持在项目运行中动态停止和重新启动适配功能
@@ -283,8 +442,9 @@ public final class AutoSizeConfig {
         Preconditions.checkNotNull(mActivityLifecycleCallbacks, "Please call the AutoSizeConfig#init() first");
         synchronized (AutoSizeConfig.class) {
             if (isStop) {
-                mApplication.registerCallbacks(mActivityLifecycleCallbacks, null);
                 isStop = false;
+                //停止期间打开的 Ability 没有被适配, 已经打开的 Ability 也已经取消了适配
+                reAdaptAbilities();
             }
         }
     }
@@ -297,13 +457,55 @@ public final class AutoSizeConfig {
         Preconditions.checkNotNull(mActivityLifecycleCallbacks, "Please call the AutoSizeConfig#init() first");
         synchronized (AutoSizeConfig.class) {
             if (!isStop) {
-                mApplication.unregisterCallbacks(mActivityLifecycleCallbacks, null);
+                isStop = true;
                 AutoSize.cancelAdapt(activity);
+            }
+        }
+    }
+
+    /**
+     * 停止框架的运行, 并取消所有已经启动的 {@link Ability} 的适配
+     * 框架具有 热插拔 特性, 支持在项目运行中动态停止和重新启动适配功能
+     */
+    public void stop() {
+        Preconditions.checkNotNull(mActivityLifecycleCallbacks, "Please call the AutoSizeConfig#init() first");
+        synchronized (AutoSizeConfig.class) {
+            if (!isStop) {
                 isStop = true;
+                cancelAdaptAbilities();
             }
         }
     }
 
+    /**
+     * 使用当前的适配参数重新适配所有已经启动的 {@link Ability}, 所有 {@link Ability} 在主线程中的同一个任务中完成适配
+     * 修改了全局适配参数 (如 {@link #setDesignWidthInDp(int)}) 之后调用, 不需要重启 APP 就可以在所有页面中生效
+     * 可以在任意线程中调用
+     */
+    public void reAdaptAbilities() {
+        Preconditions.checkNotNull(mActivityLifecycleCallbacks, "Please call the AutoSizeConfig#init() first");
+        AutoSizeExecutor.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                mActivityLifecycleCallbacks.reAdaptAbilities();
+            }
+        });
+    }
+
+    /**
+     * 取消所有已经启动的 {@link Ability} 的适配, 所有 {@link Ability} 在主线程中的同一个任务中完成
+     * 可以在任意线程中调用
+     */
+    public void cancelAdaptAbilities() {
+        Preconditions.checkNotNull(mActivityLifecycleCallbacks, "Please call the AutoSizeConfig#init() first");
+        AutoSizeExecutor.runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                mActivityLifecycleCallbacks.cancelAdaptAbilities();
+            }
+        });
+    }
+
     /**
      * 设置屏幕适配逻辑策略类
      *
@@ -333,8 +535,9 @@ public final class AutoSizeConfig {
      * @param baseOnWidth {@code true} 为按照宽度, {@code false} 为按照高度
      * @see #isBaseOnWidth 详情请查看这个字段的注释
      */
-    public AutoSizeConfig setBaseOnWidth(boolean baseOnWidth) {
+    public synchronized AutoSizeConfig setBaseOnWidth(boolean baseOnWidth) {
         isBaseOnWidth = baseOnWidth;
+        publishSnapshot();
         return this;
     }
 
@@ -344,8 +547,9 @@ public final class AutoSizeConfig {
      * @param useDeviceSize {@code true} 为使用设备的实际尺寸 (包含状态栏), {@code false} 为不使用设备的实际尺寸 (不包含状态栏)
      * @see #isUseDeviceSize 详情请查看这个字段的注释
      */
-    public AutoSizeConfig setUseDeviceSize(boolean useDeviceSize) {
+    public synchronized AutoSizeConfig setUseDeviceSize(boolean useDeviceSize) {
         isUseDeviceSize = useDeviceSize;
+        publishSnapshot();
         return this;
     }
 
@@ -359,6 +563,94 @@ public final class AutoSizeConfig {
         return this;
     }
 
+    /**
+     * 设置输出 Log 的最低级别, 比 {@link #setLog(boolean)} 更细的控制
+     *
+     * @param level {@link AutoSizeLog#DEBUG}、{@link AutoSizeLog#INFO}、{@link AutoSizeLog#WARN}、{@link AutoSizeLog#ERROR}、{@link AutoSizeLog#NONE}
+     */
+    public AutoSizeConfig setLogLevel(int level) {
+        AutoSizeLog.setLevel(level);
+        return this;
+    }
+
+    /**
+     * 是否在初始化时于后台线程中预先计算所有已知适配参数, 必须在 {@link #init(AbilityPackage)} 之前调用
+     *
+     * @param warmUp {@code true} 为开启
+     * @see #warmUp()
+     */
+    public AutoSizeConfig setWarmUp(boolean warmUp) {
+        isWarmUp = warmUp;
+        return this;
+    }
+
+    /**
+     * 是否将计算过的适配参数保存在缓存目录中, 下次启动时直接读取, 必须在 {@link #init(AbilityPackage)} 之前调用
+     *
+     * @param persistentCache {@code true} 为开启
+     */
+    public AutoSizeConfig setPersistentCache(boolean persistentCache) {
+        isPersistentCache = persistentCache;
+        return this;
+    }
+
+    /**
+     * 设置最多缓存多少组适配参数, 超过时淘汰最久未使用的, 默认为 {@value DensityCache#DEFAULT_MAX_SIZE}
+     * 窗口尺寸频繁变化 (如可以自由调整窗口大小的设备) 时会产生大量只使用一次的适配参数, 可以根据 {@link #getCacheStats()} 调整
+     *
+     * @param cacheCapacity 最多缓存的条数
+     */
+    public AutoSizeConfig setCacheCapacity(int cacheCapacity) {
+        Preconditions.checkArgument(cacheCapacity > 0, "cacheCapacity must be > 0");
+        AutoSize.setCacheCapacity(cacheCapacity);
+        return this;
+    }
+
+    /**
+     * 获取适配参数缓存的统计数据 (命中、未命中、淘汰次数以及当前条数)
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats getCacheStats() {
+        return AutoSize.getCacheStats();
+    }
+
+    /**
+     * 是否延迟初始化, 必须在 {@link #init(AbilityPackage)} 之前调用
+     * 开启后 {@link #init(AbilityPackage)} 只注册生命周期回调, 获取屏幕信息等操作延迟到第一次适配时才执行
+     * 在第一次适配之前 {@link #getInitDensity()} 等初始化参数还未获取
+     *
+     * @param lazyInit {@code true} 为开启
+     */
+    public AutoSizeConfig setLazyInit(boolean lazyInit) {
+        isLazyInit = lazyInit;
+        return this;
+    }
+
+    /**
+     * 是否已经调用过 {@link #init(AbilityPackage)}, 延迟初始化时屏幕信息等参数可能还未获取
+     *
+     * @return {@code true} 为已经调用过
+     */
+    synchronized boolean isInitialized() {
+        return mApplication != null;
+    }
+
+    /**
+     * 设置预热时需要额外计算的 {@link CustomAdapt} 适配参数, 一般传入项目中所有实现了 {@link CustomAdapt} 的页面所使用的适配参数
+     *
+     * @param customAdapts {@link CustomAdapt}
+     * @see #warmUp()
+     */
+    public AutoSizeConfig setWarmUpCustomAdapts(CustomAdapt... customAdapts) {
+        Preconditions.checkNotNull(customAdapts, "customAdapts == null");
+        for (CustomAdapt customAdapt : customAdapts) {
+            Preconditions.checkNotNull(customAdapt, "customAdapt == null");
+        }
+        mWarmUpCustomAdapts = customAdapts.clone();
+        return this;
+    }
+
     /**
      * 是否让框架支持自定义 Fragment 的适配参数, 由于这个需求是比较少见的, 所以须要使用者手动开启
      *
@@ -396,6 +688,15 @@ public final class AutoSizeConfig {
         return mExternalAdaptManager;
     }
 
+    /**
+     * {@link AdaptTracer} 用来追踪每次适配的耗时、是否命中缓存、适配决策以及适配结果, 默认关闭
+     *
+     * @return {@link #mAdaptTracer}
+     */
+    public AdaptTracer getAdaptTracer() {
+        return mAdaptTracer;
+    }
+
     /**
      * {@link_TODO UnitsManager} 用来管理 AndroidAutoSize 支持的所有单位, AndroidAutoSize 支持五种单位 (dp、sp、pt、in、mm)
      *
@@ -405,6 +706,15 @@ public final class AutoSizeConfig {
         return mUnitsManager;
     }
 
+    /**
+     * 返回当前适配参数的不可变快照, 同一次适配中应该只调用一次此方法, 之后的所有参数都从返回的 {@link AdaptSnapshot} 中读取
+     *
+     * @return {@link #mSnapshot}
+     */
+    public AdaptSnapshot getSnapshot() {
+        return mSnapshot;
+    }
+
     /**
      * 返回 {@link_TODO #mOnAdaptListener}
      *
@@ -420,7 +730,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #isBaseOnWidth}
      */
     public boolean isBaseOnWidth() {
-        return isBaseOnWidth;
+        return mSnapshot.isBaseOnWidth();
     }
 
     /**
@@ -429,7 +739,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #isUseDeviceSize}
      */
     public boolean isUseDeviceSize() {
-        return isUseDeviceSize;
+        return mSnapshot.isUseDeviceSize();
     }
 
     /**
@@ -438,7 +748,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mScreenWidth}
      */
     public int getScreenWidth() {
-        return mScreenWidth;
+        return mSnapshot.getScreenWidth();
     }
 
     /**
@@ -447,7 +757,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mScreenHeight}
      */
     public int getScreenHeight() {
-        return isUseDeviceSize() ? mScreenHeight : mScreenHeight - mStatusBarHeight;
+        return mSnapshot.getScreenHeight();
     }
 
     /**
@@ -456,8 +766,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mDesignWidthInDp}
      */
     public int getDesignWidthInDp() {
-        Preconditions.checkArgument(mDesignWidthInDp > 0, "you must set " + KEY_DESIGN_WIDTH_IN_DP + "  in your AndroidManifest file");
-        return mDesignWidthInDp;
+        return mSnapshot.getDesignWidthInDp();
     }
 
     /**
@@ -466,8 +775,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mDesignHeightInDp}
      */
     public int getDesignHeightInDp() {
-        Preconditions.checkArgument(mDesignHeightInDp > 0, "you must set " + KEY_DESIGN_HEIGHT_IN_DP + "  in your AndroidManifest file");
-        return mDesignHeightInDp;
+        return mSnapshot.getDesignHeightInDp();
     }
 
     /**
@@ -476,7 +784,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mInitDensity}
      */
     public float getInitDensity() {
-        return mInitDensity;
+        return mSnapshot.getInitDensity();
     }
 
     /**
@@ -485,7 +793,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mInitDensityDpi}
      */
     public int getInitDensityDpi() {
-        return mInitDensityDpi;
+        return mSnapshot.getInitDensityDpi();
     }
 
     /**
@@ -494,7 +802,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mInitScaledDensity}
      */
     public float getInitScaledDensity() {
-        return mInitScaledDensity;
+        return mSnapshot.getInitScaledDensity();
     }
 
     /**
@@ -503,7 +811,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mInitXdpi}
      */
     public float getInitXdpi() {
-        return mInitXdpi;
+        return mSnapshot.getInitXdpi();
     }
 
     /**
@@ -512,7 +820,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mInitScreenWidthDp}
      */
     public int getInitScreenWidthDp() {
-        return mInitScreenWidthDp;
+        return mSnapshot.getInitScreenWidthDp();
     }
 
     /**
@@ -521,7 +829,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #mInitScreenHeightDp}
      */
     public int getInitScreenHeightDp() {
-        return mInitScreenHeightDp;
+        return mSnapshot.getInitScreenHeightDp();
     }
 
     /**
@@ -530,7 +838,7 @@ public final class AutoSizeConfig {
      * @return {@code true} 为纵向, {@code false} 为横向
      */
     public boolean isVertical() {
-        return isVertical;
+        return mSnapshot.isVertical();
     }
 
     /**
@@ -538,8 +846,9 @@ public final class AutoSizeConfig {
      *
      * @param vertical {@code true} 为纵向, {@code false} 为横向
      */
-    public AutoSizeConfig setVertical(boolean vertical) {
+    public synchronized AutoSizeConfig setVertical(boolean vertical) {
         isVertical = vertical;
+        publishSnapshot();
         return this;
     }
 
@@ -550,7 +859,7 @@ public final class AutoSizeConfig {
      * @return {@link_TODO #isExcludeFontScale}
      */
     public boolean isExcludeFontScale() {
-        return isExcludeFontScale;
+        return mSnapshot.isExcludeFontScale();
     }
 
     /**
@@ -559,8 +868,9 @@ public final class AutoSizeConfig {
      *
      * @param excludeFontScale 是否屏蔽
      */
-    public AutoSizeConfig setExcludeFontScale(boolean excludeFontScale) {
+    public synchronized AutoSizeConfig setExcludeFontScale(boolean excludeFontScale) {
         isExcludeFontScale = excludeFontScale;
+        publishSnapshot();
         return this;
     }
 
@@ -570,8 +880,9 @@ public final class AutoSizeConfig {
      *
      * @param fontScale 字体大小放大的比例, 设为 0 则取消此功能
      */
-    public AutoSizeConfig setPrivateFontScale(float fontScale) {
+    public synchronized AutoSizeConfig setPrivateFontScale(float fontScale) {
         privateFontScale = fontScale;
+        publishSnapshot();
         return this;
     }
 
@@ -582,7 +893,7 @@ public final class AutoSizeConfig {
      * @return 私有的字体大小放大比例
      */
     public float getPrivateFontScale() {
-        return privateFontScale;
+        return mSnapshot.getPrivateFontScale();
     }
 
     /**
@@ -590,9 +901,10 @@ public final class AutoSizeConfig {
      *
      * @param screenWidth 屏幕宽度
      */
-    public AutoSizeConfig setScreenWidth(int screenWidth) {
+    public synchronized AutoSizeConfig setScreenWidth(int screenWidth) {
         Preconditions.checkArgument(screenWidth > 0, "screenWidth must be > 0");
         mScreenWidth = screenWidth;
+        publishSnapshot();
         return this;
     }
 
@@ -601,9 +913,10 @@ public final class AutoSizeConfig {
      *
      * @param screenHeight 屏幕高度 (需要包含状态栏)
      */
-    public AutoSizeConfig setScreenHeight(int screenHeight) {
+    public synchronized AutoSizeConfig setScreenHeight(int screenHeight) {
         Preconditions.checkArgument(screenHeight > 0, "screenHeight must be > 0");
         mScreenHeight = screenHeight;
+        publishSnapshot();
         return this;
     }
 
@@ -612,9 +925,10 @@ public final class AutoSizeConfig {
      *
      * @param designWidthInDp 设计图宽度
      */
-    public AutoSizeConfig setDesignWidthInDp(int designWidthInDp) {
+    public synchronized AutoSizeConfig setDesignWidthInDp(int designWidthInDp) {
         Preconditions.checkArgument(designWidthInDp > 0, "designWidthInDp must be > 0");
         mDesignWidthInDp = designWidthInDp;
+        publishSnapshot();
         return this;
     }
 
@@ -623,9 +937,10 @@ public final class AutoSizeConfig {
      *
      * @param designHeightInDp 设计图高度
      */
-    public AutoSizeConfig setDesignHeightInDp(int designHeightInDp) {
+    public synchronized AutoSizeConfig setDesignHeightInDp(int designHeightInDp) {
         Preconditions.checkArgument(designHeightInDp > 0, "designHeightInDp must be > 0");
         mDesignHeightInDp = designHeightInDp;
+        publishSnapshot();
         return this;
     }
 
@@ -634,50 +949,164 @@ public final class AutoSizeConfig {
      *
      * @param statusBarHeight 状态栏高度
      */
-    public AutoSizeConfig setStatusBarHeight(int statusBarHeight) {
+    public synchronized AutoSizeConfig setStatusBarHeight(int statusBarHeight) {
         Preconditions.checkArgument(statusBarHeight > 0, "statusBarHeight must be > 0");
         mStatusBarHeight = statusBarHeight;
+        publishSnapshot();
         return this;
     }
 
     /**
-     * 获取使用者在 AndroidManifest 中填写的 Meta 信息
-     * <p>
-     * Example usage:
-     * <pre>
-     * <meta-data android:name="design_width_in_dp"
-     *            android:value="360"/>
-     * <meta-data android:name="design_height_in_dp"
-     *            android:value="640"/>
-     * </pre>
-     *
-     * @param context {@link_TODO Context}
+     * 根据当前的适配参数发布一个新的 {@link AdaptSnapshot}, 调用时必须持有 {@code this} 锁
      */
-    private void getMetaData(final Context context) {
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-//                PackageManager packageManager = context.getPackageManager();
-//                ApplicationInfo applicationInfo;
-//                try {
-//                    applicationInfo = packageManager.getApplicationInfo(context
-//                            .getPackageName(), PackageManager.GET_META_DATA);
-//                    if (applicationInfo != null && applicationInfo.metaData != null) {
-//                        if (applicationInfo.metaData.containsKey(KEY_DESIGN_WIDTH_IN_DP)) {
-//                            mDesignWidthInDp = (int) applicationInfo.metaData.get(KEY_DESIGN_WIDTH_IN_DP);
-//                        }
-//                        if (applicationInfo.metaData.containsKey(KEY_DESIGN_HEIGHT_IN_DP)) {
-//                            mDesignHeightInDp = (int) applicationInfo.metaData.get(KEY_DESIGN_HEIGHT_IN_DP);
-//                        }
-//                    }
-//                } catch (PackageManager.NameNotFoundException e) {
-//                    e.printStackTrace();
-//                }
+    private void publishSnapshot() {
+        mSnapshot = new AdaptSnapshot(mSnapshot.getVersion() + 1, this);
+    }
+
+    /**
+     * ================================================
+     * {@link AutoSizeConfig} 中适配参数的不可变快照, 每次修改适配参数都会生成一个新的版本
+     * 一次适配只读取一个快照, 所以不会读取到被其他线程修改了一半的参数
+     * ================================================
+     */
+    public static final class AdaptSnapshot {
+        private final long version;
+        private final float initDensity;
+        private final int initDensityDpi;
+        private final float initScaledDensity;
+        private final float initXdpi;
+        private final int initScreenWidthDp;
+        private final int initScreenHeightDp;
+        private final int designWidthInDp;
+        private final int designHeightInDp;
+        private final int screenWidth;
+        private final int screenHeight;
+        private final int statusBarHeight;
+        private final boolean isBaseOnWidth;
+        private final boolean isUseDeviceSize;
+        private final boolean isVertical;
+        private final boolean isExcludeFontScale;
+        private final float privateFontScale;
+        private final ConversionTable initConversionTable;
+
+        private AdaptSnapshot(long version, AutoSizeConfig config) {
+            this.version = version;
+            this.initDensity = config.mInitDensity;
+            this.initDensityDpi = config.mInitDensityDpi;
+            this.initScaledDensity = config.mInitScaledDensity;
+            this.initXdpi = config.mInitXdpi;
+            this.initScreenWidthDp = config.mInitScreenWidthDp;
+            this.initScreenHeightDp = config.mInitScreenHeightDp;
+            this.designWidthInDp = config.mDesignWidthInDp;
+            this.designHeightInDp = config.mDesignHeightInDp;
+            this.screenWidth = config.mScreenWidth;
+            this.screenHeight = config.mScreenHeight;
+            this.statusBarHeight = config.mStatusBarHeight;
+            this.isBaseOnWidth = config.isBaseOnWidth;
+            this.isUseDeviceSize = config.isUseDeviceSize;
+            this.isVertical = config.isVertical;
+            this.isExcludeFontScale = config.isExcludeFontScale;
+            this.privateFontScale = config.privateFontScale;
+            this.initConversionTable = new ConversionTable(initDensityDpi, initScaledDensity, initXdpi);
+        }
+
+        /**
+         * 快照的版本号, 每次修改适配参数都会加一
+         *
+         * @return 版本号
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public float getInitDensity() {
+            return initDensity;
+        }
+
+        public int getInitDensityDpi() {
+            return initDensityDpi;
+        }
+
+        public float getInitScaledDensity() {
+            return initScaledDensity;
+        }
+
+        public float getInitXdpi() {
+            return initXdpi;
+        }
 
+        /**
+         * @return 适配之前 (初始状态下) 各单位到 px 的转换系数, 取消适配时使用
+         */
+        public ConversionTable getInitConversionTable() {
+            return initConversionTable;
+        }
+
+        public int getInitScreenWidthDp() {
+            return initScreenWidthDp;
+        }
+
+        public int getInitScreenHeightDp() {
+            return initScreenHeightDp;
+        }
+
+        public int getDesignWidthInDp() {
+            Preconditions.checkArgument(designWidthInDp > 0, "you must set " + KEY_DESIGN_WIDTH_IN_DP + " in the metaData of your config.json");
+            return designWidthInDp;
+        }
+
+        public int getDesignHeightInDp() {
+            Preconditions.checkArgument(designHeightInDp > 0, "you must set " + KEY_DESIGN_HEIGHT_IN_DP + " in the metaData of your config.json");
+            return designHeightInDp;
+        }
+
+        public int getScreenWidth() {
+            return screenWidth;
+        }
+
+        public int getStatusBarHeight() {
+            return statusBarHeight;
+        }
+
+        /**
+         * 如果 {@link #isUseDeviceSize()} 为 {@code false}, 返回的屏幕高度会减去状态栏的高度
+         *
+         * @return 屏幕高度
+         */
+        public int getScreenHeight() {
+            return isUseDeviceSize ? screenHeight : screenHeight - statusBarHeight;
+        }
+
+        public boolean isBaseOnWidth() {
+            return isBaseOnWidth;
+        }
+
+        public boolean isUseDeviceSize() {
+            return isUseDeviceSize;
+        }
+
+        public boolean isVertical() {
+            return isVertical;
+        }
 
+        public boolean isExcludeFontScale() {
+            return isExcludeFontScale;
+        }
 
+        public float getPrivateFontScale() {
+            return privateFontScale;
+        }
 
+        /**
+         * 适配时实际使用的字体缩放比例, 综合了 {@link #getPrivateFontScale()}、{@link #isExcludeFontScale()} 和系统字体大小
+         *
+         * @return 字体缩放比例
+         */
+        public float getFontScale() {
+            if (privateFontScale > 0) {
+                return privateFontScale;
             }
-        }).start();
+            return isExcludeFontScale ? 1 : initScaledDensity * 1.0f / initDensity;
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import ohos.eventhandler.EventHandler;
+import ohos.eventhandler.EventRunner;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================
+ * AndroidAutoSize 内部共用的后台线程, 第一次使用时才会创建
+ * <p>
+ * 只有一个线程, 空闲一段时间后线程会自动退出, 再次提交任务时重新创建, 所以不会一直占用一个线程
+ * 后台任务的结果需要应用到 {@code Ability} 上时, 通过 {@link #runOnMainThread(Runnable)} 切换回主线程
+ * ================================================
+ */
+final class AutoSizeExecutor {
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private AutoSizeExecutor() {
+        throw new IllegalStateException("you can't instantiate me!");
+    }
+
+    /**
+     * 类加载时才会创建线程池, 没有使用后台任务时不会产生任何开销
+     */
+    private static final class Holder {
+        static final ThreadPoolExecutor EXECUTOR = createExecutor();
+    }
+
+    /**
+     * 第一次切换到主线程时才会创建主线程的 {@link EventHandler}
+     */
+    private static final class MainHolder {
+        static final EventHandler HANDLER = new EventHandler(EventRunner.getMainEventRunner());
+    }
+
+    static Executor get() {
+        return Holder.EXECUTOR;
+    }
+
+    static void execute(Runnable runnable) {
+        Holder.EXECUTOR.execute(runnable);
+    }
+
+    /**
+     * 在主线程中执行 {@code runnable}, 当前已经是主线程时直接执行
+     */
+    static void runOnMainThread(Runnable runnable) {
+        if (EventRunner.current() == EventRunner.getMainEventRunner()) {
+            runnable.run();
+        } else {
+            MainHolder.HANDLER.postTask(runnable);
+        }
+    }
+
+    /**
+     * @return 主线程的 {@link EventHandler}
+     */
+    static EventHandler getMainHandler() {
+        return MainHolder.HANDLER;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS
+                , new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "AutoSize-worker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import java.util.Locale;
+
+/**
+ * ================================================
+ * 适配参数缓存的统计数据, 可以根据命中率和淘汰次数调整 {@link AutoSizeConfig#setCacheCapacity(int)}
+ * <p>
+ * 此类是不可变的, 表示获取时那一刻的统计数据
+ *
+ * @see AutoSizeConfig#getCacheStats()
+ * ================================================
+ */
+public final class CacheStats {
+    private final long mHitCount;
+    private final long mMissCount;
+    private final long mEvictionCount;
+    private final int mSize;
+    private final int mMaxSize;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, int size, int maxSize) {
+        mHitCount = hitCount;
+        mMissCount = missCount;
+        mEvictionCount = evictionCount;
+        mSize = size;
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * @return 命中缓存的次数
+     */
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return 未命中缓存 (需要重新计算) 的次数
+     */
+    public long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * @return 因为缓存已满而被淘汰的条目数
+     */
+    public long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * @return 当前缓存的条目数
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * @return 最多缓存的条目数, 多个缓存合并后为各个缓存的总和
+     */
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * @return 命中率, 还没有查询过缓存时返回 1
+     */
+    public double getHitRate() {
+        long requestCount = mHitCount + mMissCount;
+        return requestCount == 0 ? 1.0 : (double) mHitCount / requestCount;
+    }
+
+    /**
+     * 合并两份统计数据
+     *
+     * @param other 另一份统计数据
+     * @return 合并后的 {@link CacheStats}
+     */
+    CacheStats plus(CacheStats other) {
+        return new CacheStats(mHitCount + other.mHitCount, mMissCount + other.mMissCount
+                , mEvictionCount + other.mEvictionCount, mSize + other.mSize, mMaxSize + other.mMaxSize);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "CacheStats{hitCount=%d, missCount=%d, evictionCount=%d, size=%d, maxSize=%d, hitRate=%.3f}"
+                , mHitCount, mMissCount, mEvictionCount, mSize, mMaxSize, getHitRate());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.ElementsCallback;
+import ohos.eventhandler.EventHandler;
+import ohos.global.configuration.Configuration;
+
+/**
+ * ================================================
+ * 监听系统配置的变化 (字体缩放比例、屏幕方向、窗口尺寸等), 变化后重新获取屏幕信息并重新适配
+ * <p>
+ * 旋转屏幕或者拖动窗口时会在短时间内连续收到多次配置变化, 每次收到后都会重新计时 {@link #DEBOUNCE_MILLIS} 毫秒
+ * 期间没有再收到新的配置变化才会使用最后一次的 {@link Configuration} 处理一次, 所有 {@code Ability} 只重新适配一次
+ * 只在主线程中使用
+ * ================================================
+ */
+final class ConfigurationChangeHandler implements ElementsCallback {
+    static final long DEBOUNCE_MILLIS = 100;
+
+    private final OnConfigurationChangedListener mListener;
+    private final EventHandler mHandler;
+    private Configuration mPendingConfiguration;
+    private final Runnable mDispatchTask = new Runnable() {
+        @Override
+        public void run() {
+            Configuration configuration = mPendingConfiguration;
+            mPendingConfiguration = null;
+            if (configuration != null) {
+                mListener.onConfigurationChanged(configuration);
+            }
+        }
+    };
+
+    /**
+     * 防抖之后的配置变化回调
+     */
+    interface OnConfigurationChangedListener {
+        void onConfigurationChanged(Configuration configuration);
+    }
+
+    ConfigurationChangeHandler(EventHandler handler, OnConfigurationChangedListener listener) {
+        mHandler = handler;
+        mListener = listener;
+    }
+
+    @Override
+    public void onMemoryLevel(int level) {
+
+    }
+
+    @Override
+    public void onConfigurationUpdated(Configuration configuration) {
+        if (configuration == null) {
+            return;
+        }
+        mPendingConfiguration = configuration;
+        mHandler.removeTask(mDispatchTask);
+        mHandler.postTask(mDispatchTask, DEBOUNCE_MILLIS);
+    }
+}
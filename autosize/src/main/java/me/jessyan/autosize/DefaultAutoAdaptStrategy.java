@@ -15,15 +15,15 @@
  */
 package me.jessyan.autosize;
 
-import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import me.jessyan.autosize.AutoSizeConfig.AdaptSnapshot;
 import me.jessyan.autosize.external.ExternalAdaptInfo;
-import me.jessyan.autosize.internal.CancelAdapt;
+import me.jessyan.autosize.external.ExternalAdaptManager;
 import me.jessyan.autosize.internal.CustomAdapt;
 import me.jessyan.autosize.utils.AutoSizeLog;
 import ohos.aafwk.ability.Ability;
-import ohos.hiviewdfx.HiLog;
-import ohos.hiviewdfx.HiLogLabel;
 
 /**
  * ================================================
@@ -37,44 +37,64 @@ import ohos.hiviewdfx.HiLogLabel;
  * ================================================
  */
 public class DefaultAutoAdaptStrategy implements AutoAdaptStrategy {
-
-    static HiLogLabel label = new HiLogLabel(HiLog.LOG_APP, 0x0, "MYLOG");
+    /**
+     * 每个 target class 的适配决策, 避免每次适配都去查询 {@link ExternalAdaptManager} 和判断 target 实现的接口
+     */
+    private final Map<Class<?>, AdaptPlan> mAdaptPlans = new ConcurrentHashMap<>();
+    /**
+     * {@link #mAdaptPlans} 对应的 {@link ExternalAdaptManager#getVersion()}, 版本不一致说明 {@link ExternalAdaptManager} 被修改过, 需要清空缓存
+     */
+    private volatile int mAdaptPlansVersion = -1;
 
     @Override
     public void applyAdapt(Object target, Ability activity) {
-        HiLog.info(label, "DefaultAutoAdaptStrategy.applyAdapt()");
-
-        //检查是否开启了外部三方库的适配模式, 只要不主动调用 ExternalAdaptManager 的方法, 下面的代码就不会执行
-        if (AutoSizeConfig.getInstance().getExternalAdaptManager().isRun()) {
-            if (AutoSizeConfig.getInstance().getExternalAdaptManager().isCancelAdapt(target.getClass())) {
-                AutoSizeLog.w(String.format(Locale.ENGLISH, "%s canceled the adaptation!", target.getClass().getName()));
-                AutoSize.cancelAdapt(activity);
-                return;
-            } else {
-                ExternalAdaptInfo info = AutoSizeConfig.getInstance().getExternalAdaptManager()
-                        .getExternalAdaptInfoOfActivity(target.getClass());
-                if (info != null) {
-                    AutoSizeLog.d(String.format(Locale.ENGLISH, "%s used %s for adaptation!", target.getClass().getName(), ExternalAdaptInfo.class.getName()));
-                    AutoSize.autoConvertDensityOfExternalAdaptInfo(activity, info);
-                    return;
+        AdaptSnapshot snapshot = AutoSizeConfig.getInstance().getSnapshot();
+        AdaptPlan plan = getAdaptPlan(target.getClass());
+        switch (plan.type) {
+            case CANCEL:
+                if (AutoSizeLog.ENABLED && AutoSizeLog.isLoggable(AutoSizeLog.WARN)) {
+                    AutoSizeLog.w("%s canceled the adaptation!", target.getClass().getName());
+                }
+                AutoSize.cancelAdapt(activity, snapshot);
+                break;
+            case EXTERNAL:
+                if (AutoSizeLog.ENABLED && AutoSizeLog.isDebug()) {
+                    AutoSizeLog.d("%s used %s for adaptation!", target.getClass().getName(), ExternalAdaptInfo.class.getName());
+                }
+                AutoSize.autoConvertDensityOfExternalAdaptInfo(activity, snapshot, plan.externalAdaptInfo);
+                break;
+            case CUSTOM:
+                if (AutoSizeLog.ENABLED && AutoSizeLog.isDebug()) {
+                    AutoSizeLog.d("%s implemented by %s!", target.getClass().getName(), CustomAdapt.class.getName());
                 }
-            }
+                AutoSize.autoConvertDensityOfCustomAdapt(activity, snapshot, (CustomAdapt) target);
+                break;
+            default:
+                if (AutoSizeLog.ENABLED && AutoSizeLog.isDebug()) {
+                    AutoSizeLog.d("%s used the global configuration.", target.getClass().getName());
+                }
+                AutoSize.autoConvertDensityOfGlobal(activity, snapshot);
         }
+    }
 
-        //如果 target 实现 CancelAdapt 接口表示放弃适配, 所有的适配效果都将失效
-        if (target instanceof CancelAdapt) {
-            AutoSizeLog.w(String.format(Locale.ENGLISH, "%s canceled the adaptation!", target.getClass().getName()));
-            AutoSize.cancelAdapt(activity);
-            return;
+    /**
+     * 获取 {@code targetClass} 的适配决策, 同一个 class 只在第一次适配时计算, {@link ExternalAdaptManager} 被修改后会重新计算
+     *
+     * @param targetClass 需要屏幕适配的对象的 class
+     * @return {@link AdaptPlan}
+     */
+    AdaptPlan getAdaptPlan(Class<?> targetClass) {
+        ExternalAdaptManager manager = AutoSizeConfig.getInstance().getExternalAdaptManager();
+        int version = manager.getVersion();
+        if (version != mAdaptPlansVersion) {
+            mAdaptPlans.clear();
+            mAdaptPlansVersion = version;
         }
-
-        //如果 target 实现 CustomAdapt 接口表示该 target 想自定义一些用于适配的参数, 从而改变最终的适配效果
-        if (target instanceof CustomAdapt) {
-            AutoSizeLog.d(String.format(Locale.ENGLISH, "%s implemented by %s!", target.getClass().getName(), CustomAdapt.class.getName()));
-            AutoSize.autoConvertDensityOfCustomAdapt(activity, (CustomAdapt) target);
-        } else {
-            AutoSizeLog.d(String.format(Locale.ENGLISH, "%s used the global configuration.", target.getClass().getName()));
-            AutoSize.autoConvertDensityOfGlobal(activity);
+        AdaptPlan plan = mAdaptPlans.get(targetClass);
+        if (plan == null) {
+            plan = AdaptPlan.resolve(targetClass, manager);
+            mAdaptPlans.put(targetClass, plan);
         }
+        return plan;
     }
 }
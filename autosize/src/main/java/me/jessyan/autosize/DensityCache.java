@@ -0,0 +1,415 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ================================================
+ * {@link DisplayMetricsInfo} 的缓存, 供 {@link DensityCalculator} 使用
+ * <p>
+ * 以完整的适配参数 (设计图尺寸、副单位设计图尺寸、屏幕宽高、字体缩放比例、适配模式) 作为 key, 不同的参数组合不会再共用同一个 {@link DisplayMetricsInfo}
+ * key 以基本类型存放在 {@link Table#keys} 中, 使用开放寻址 (线性探测) 解决冲突, 查询时不会产生任何装箱操作
+ * <p>
+ * 此类是线程安全的, 写入时复制一份新的 {@link Table} 再通过 volatile 发布 (copy-on-write), 查询时不需要加锁
+ * 缓存中的条目通常只有十几个, 复制的开销远小于一次适配, 这样预热线程和主线程可以同时使用同一个缓存
+ * <p>
+ * 缓存的条目数不会超过 {@link #getMaxSize()}, 超过时淘汰最久未使用的条目 (窗口尺寸不断变化时会产生大量不再使用的条目)
+ * 每次命中时在 {@link Table#stamps} 中记录访问时间, 查询不加锁, 所以与写入同时发生的访问记录可能丢失, 淘汰顺序是近似的 LRU
+ * ================================================
+ */
+final class DensityCache {
+    /**
+     * 以宽度为基准进行适配
+     */
+    static final int FLAG_BASE_ON_WIDTH = 1;
+    /**
+     * 使用设备的实际尺寸进行适配
+     */
+    static final int FLAG_USE_DEVICE_SIZE = 1 << 1;
+    /**
+     * 每个 key 在 {@link Table#keys} 中占用的 int 个数
+     */
+    static final int KEY_LENGTH = 6;
+    /**
+     * 默认最多缓存的条目数
+     */
+    static final int DEFAULT_MAX_SIZE = 128;
+    static final int DEFAULT_CAPACITY = 16;
+
+    private final int mInitialCapacity;
+    private volatile int mMaxSize;
+    /**
+     * 已经发布的 {@link Table} 除了 {@link Table#stamps} 以外不会再被修改
+     */
+    private volatile Table mTable;
+    /**
+     * 访问时间, 每次命中或存入时递增
+     */
+    private final AtomicLong mClock = new AtomicLong();
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mEvictionCount = new AtomicLong();
+
+    DensityCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_SIZE);
+    }
+
+    DensityCache(int initialCapacity, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        mInitialCapacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        mMaxSize = maxSize;
+        mTable = new Table(mInitialCapacity);
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @param sizeInDp           设计图尺寸
+     * @param subunitsDesignSize 副单位设计图尺寸
+     * @param screenWidth        屏幕宽度
+     * @param screenHeight       屏幕高度
+     * @param fontScale          字体缩放比例
+     * @param flags              {@link #FLAG_BASE_ON_WIDTH}、{@link #FLAG_USE_DEVICE_SIZE} 的组合
+     * @return 没有命中缓存则返回 {@code null}
+     */
+    DisplayMetricsInfo get(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, int flags) {
+        Table table = mTable;
+        int index = table.indexOf(Float.floatToIntBits(sizeInDp), Float.floatToIntBits(subunitsDesignSize), screenWidth, screenHeight
+                , Float.floatToIntBits(fontScale), flags);
+        DisplayMetricsInfo value = table.values[index];
+        if (value == null) {
+            mMissCount.incrementAndGet();
+        } else {
+            mHitCount.incrementAndGet();
+            table.stamps[index] = mClock.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * 存入缓存, 如果 key 已经存在则替换
+     *
+     * @param value {@link DisplayMetricsInfo}
+     */
+    void put(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, int flags, DisplayMetricsInfo value) {
+        put(sizeInDp, subunitsDesignSize, screenWidth, screenHeight, fontScale, flags, value, true);
+    }
+
+    /**
+     * 存入缓存, 如果 key 已经存在则保留原来的值
+     *
+     * @param value {@link DisplayMetricsInfo}
+     * @return 缓存中最终的值, 其他线程先存入时返回其他线程存入的值
+     */
+    DisplayMetricsInfo putIfAbsent(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, int flags, DisplayMetricsInfo value) {
+        return put(sizeInDp, subunitsDesignSize, screenWidth, screenHeight, fontScale, flags, value, false);
+    }
+
+    /**
+     * 批量存入缓存, 已经存在的 key 保留原来的值, 整批记录只复制一次 {@link Table}
+     * 批量存入的记录被视为最久未使用, 并且不会为了存入这些记录而淘汰已有的条目, 超出 {@link #getMaxSize()} 的部分直接丢弃
+     *
+     * @param keys   每 {@link #KEY_LENGTH} 个 int 为一组 key, 浮点数以 {@link Float#floatToIntBits(float)} 存放
+     * @param values 与 key 一一对应的 {@link DisplayMetricsInfo}
+     * @param count  记录条数
+     * @return 实际存入的记录条数
+     */
+    synchronized int putAllIfAbsent(int[] keys, DisplayMetricsInfo[] values, int count) {
+        Table table = mTable;
+        count = Math.max(Math.min(count, mMaxSize - table.size), 0);
+        int capacity = table.values.length;
+        while ((table.size + count + 1) << 1 > capacity) {
+            capacity <<= 1;
+        }
+        Table copy = capacity == table.values.length ? table.copy() : table.resize(capacity, null);
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] == null) {
+                throw new NullPointerException("value == null");
+            }
+            int base = i * KEY_LENGTH;
+            int index = copy.indexOf(keys[base], keys[base + 1], keys[base + 2], keys[base + 3], keys[base + 4], keys[base + 5]);
+            if (copy.values[index] == null) {
+                copy.insert(keys[base], keys[base + 1], keys[base + 2], keys[base + 3], keys[base + 4], keys[base + 5], values[i], 0);
+                added++;
+            }
+        }
+        mTable = copy;
+        return added;
+    }
+
+    /**
+     * 返回当前所有记录的只读视图, 之后对缓存的修改不会影响返回的视图
+     *
+     * @return {@link Entries}
+     */
+    Entries entries() {
+        return new Entries(mTable);
+    }
+
+    int size() {
+        return mTable.size;
+    }
+
+    int getMaxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * 设置最多缓存的条目数, 当前条目数超过 {@code maxSize} 时立即淘汰最久未使用的条目
+     *
+     * @param maxSize 最多缓存的条目数
+     */
+    synchronized void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        mMaxSize = maxSize;
+        Table table = mTable;
+        if (table.size > maxSize) {
+            mTable = evict(table, table.size - maxSize, table.values.length);
+        }
+    }
+
+    /**
+     * @return 当前的命中、未命中、淘汰次数以及条目数
+     */
+    CacheStats stats() {
+        return new CacheStats(mHitCount.get(), mMissCount.get(), mEvictionCount.get(), size(), mMaxSize);
+    }
+
+    /**
+     * 删除所有使用 {@code fontScale} 计算的条目, 字体缩放比例变化后这些条目不会再被使用, 不计入淘汰次数
+     *
+     * @param fontScale 字体缩放比例
+     * @return 删除的条目数
+     */
+    synchronized int removeFontScale(float fontScale) {
+        int scale = Float.floatToIntBits(fontScale);
+        Table table = mTable;
+        boolean[] removed = new boolean[table.values.length];
+        int count = 0;
+        for (int i = 0; i < table.values.length; i++) {
+            if (table.values[i] != null && table.keys[i * KEY_LENGTH + 4] == scale) {
+                removed[i] = true;
+                count++;
+            }
+        }
+        if (count > 0) {
+            mTable = table.resize(table.values.length, removed);
+        }
+        return count;
+    }
+
+    /**
+     * 清空缓存, 不会重置统计数据, 也不计入淘汰次数
+     */
+    synchronized void clear() {
+        mTable = new Table(mInitialCapacity);
+    }
+
+    private synchronized DisplayMetricsInfo put(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, int flags, DisplayMetricsInfo value, boolean replace) {
+        if (value == null) {
+            throw new NullPointerException("value == null");
+        }
+        int size = Float.floatToIntBits(sizeInDp);
+        int subunits = Float.floatToIntBits(subunitsDesignSize);
+        int scale = Float.floatToIntBits(fontScale);
+        Table table = mTable;
+        int index = table.indexOf(size, subunits, screenWidth, screenHeight, scale, flags);
+        DisplayMetricsInfo existing = table.values[index];
+        if (existing != null && (!replace || existing == value)) {
+            return existing;
+        }
+        Table copy;
+        if (existing == null && table.size >= mMaxSize) {
+            //已满, 淘汰后重新构建的 Table 已经是一份新的副本
+            copy = evict(table, table.size - mMaxSize + 1, table.values.length);
+        } else if (existing == null && (table.size + 1) << 1 > table.values.length) {
+            copy = table.resize(table.values.length << 1, null);
+        } else {
+            copy = table.copy();
+        }
+        copy.insert(size, subunits, screenWidth, screenHeight, scale, flags, value, mClock.incrementAndGet());
+        mTable = copy;
+        return value;
+    }
+
+    /**
+     * 淘汰 {@code count} 个最久未使用的条目, 返回不包含这些条目的新 {@link Table}
+     * 开放寻址无法直接删除条目, 所以剩下的条目需要重新插入, 淘汰只发生在写入时, 开销可以接受
+     */
+    private Table evict(Table table, int count, int capacity) {
+        boolean[] evicted = new boolean[table.values.length];
+        for (int n = 0; n < count; n++) {
+            int victim = -1;
+            for (int i = 0; i < table.values.length; i++) {
+                if (table.values[i] != null && !evicted[i] && (victim == -1 || table.stamps[i] < table.stamps[victim])) {
+                    victim = i;
+                }
+            }
+            evicted[victim] = true;
+        }
+        mEvictionCount.addAndGet(count);
+        return table.resize(capacity, evicted);
+    }
+
+    /**
+     * 某一时刻缓存中所有记录的只读视图
+     */
+    static final class Entries {
+        private final Table mTable;
+        private final int[] mIndexes;
+
+        private Entries(Table table) {
+            mTable = table;
+            mIndexes = new int[table.size];
+            int count = 0;
+            for (int i = 0; i < table.values.length; i++) {
+                if (table.values[i] != null) {
+                    mIndexes[count++] = i;
+                }
+            }
+        }
+
+        int size() {
+            return mIndexes.length;
+        }
+
+        /**
+         * @param entry 第几条记录
+         * @param k     key 中的第几个 int, 取值范围为 [0, {@link #KEY_LENGTH})
+         * @return key 中的值, 浮点数以 {@link Float#floatToIntBits(float)} 返回
+         */
+        int key(int entry, int k) {
+            return mTable.keys[mIndexes[entry] * KEY_LENGTH + k];
+        }
+
+        DisplayMetricsInfo value(int entry) {
+            return mTable.values[mIndexes[entry]];
+        }
+    }
+
+    /**
+     * 开放寻址的哈希表, 每 {@link #KEY_LENGTH} 个 int 为一组, 与 {@link #values} 中同一下标的 {@link DisplayMetricsInfo} 对应
+     * 发布之后只有 {@link #stamps} 会被修改
+     */
+    private static final class Table {
+        final int[] keys;
+        final DisplayMetricsInfo[] values;
+        /**
+         * 每个条目最后一次被访问的时间, 用于淘汰最久未使用的条目
+         */
+        final long[] stamps;
+        int size;
+
+        Table(int capacity) {
+            this(new int[capacity * KEY_LENGTH], new DisplayMetricsInfo[capacity], new long[capacity], 0);
+        }
+
+        private Table(int[] keys, DisplayMetricsInfo[] values, long[] stamps, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.stamps = stamps;
+            this.size = size;
+        }
+
+        /**
+         * @return key 所在的下标, 不存在则返回 key 应该插入的空槽位
+         */
+        int indexOf(int size, int subunits, int screenWidth, int screenHeight, int scale, int flags) {
+            int mask = values.length - 1;
+            int index = hash(size, subunits, screenWidth, screenHeight, scale, flags) & mask;
+            while (values[index] != null) {
+                if (matches(index, size, subunits, screenWidth, screenHeight, scale, flags)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        void insert(int size, int subunits, int screenWidth, int screenHeight, int scale, int flags
+                , DisplayMetricsInfo value, long stamp) {
+            int index = indexOf(size, subunits, screenWidth, screenHeight, scale, flags);
+            if (values[index] == null) {
+                int base = index * KEY_LENGTH;
+                keys[base] = size;
+                keys[base + 1] = subunits;
+                keys[base + 2] = screenWidth;
+                keys[base + 3] = screenHeight;
+                keys[base + 4] = scale;
+                keys[base + 5] = flags;
+                this.size++;
+            }
+            values[index] = value;
+            stamps[index] = stamp;
+        }
+
+        Table copy() {
+            return new Table(keys.clone(), values.clone(), stamps.clone(), size);
+        }
+
+        /**
+         * @param excluded 不需要复制到新 {@link Table} 中的下标, 可以为 {@code null}
+         */
+        Table resize(int capacity, boolean[] excluded) {
+            Table table = new Table(capacity);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null && (excluded == null || !excluded[i])) {
+                    int base = i * KEY_LENGTH;
+                    table.insert(keys[base], keys[base + 1], keys[base + 2], keys[base + 3]
+                            , keys[base + 4], keys[base + 5], values[i], stamps[i]);
+                }
+            }
+            return table;
+        }
+
+        private boolean matches(int index, int size, int subunits, int screenWidth, int screenHeight, int scale, int flags) {
+            int base = index * KEY_LENGTH;
+            int[] keys = this.keys;
+            return keys[base] == size
+                    && keys[base + 1] == subunits
+                    && keys[base + 2] == screenWidth
+                    && keys[base + 3] == screenHeight
+                    && keys[base + 4] == scale
+                    && keys[base + 5] == flags;
+        }
+    }
+
+    private static int hash(int size, int subunits, int screenWidth, int screenHeight, int scale, int flags) {
+        int h = size;
+        h = h * 31 + subunits;
+        h = h * 31 + screenWidth;
+        h = h * 31 + screenHeight;
+        h = h * 31 + scale;
+        h = h * 31 + flags;
+        //murmur3 fmix32, 让相近的参数也能分散到不同的槽位
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
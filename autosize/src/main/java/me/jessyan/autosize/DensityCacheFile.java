@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * ================================================
+ * {@link DensityCache} 的持久化文件, 让下次启动时不需要重新计算之前已经计算过的 {@link DisplayMetricsInfo}
+ * <p>
+ * 文件格式 (大端序):
+ * <pre>
+ * int   magic
+ * int   version
+ * long  fingerprint   设备和配置的指纹, 与当前不一致时整个文件作废
+ * int   count
+ * count * ENTRY_SIZE  每条记录为 6 个 int 的 key 加上 {@link DisplayMetricsInfo} 的 6 个字段
+ * long  crc32         前面所有内容的校验值
+ * </pre>
+ * 读取时通过 mmap 一次性映射整个文件, 任何校验失败 (文件损坏、版本不一致、指纹不一致) 都会删除文件并当作没有缓存处理
+ * ================================================
+ */
+final class DensityCacheFile {
+    private static final int MAGIC = 0x41535a43;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+    private static final int ENTRY_SIZE = 12 * 4;
+    private static final int CHECKSUM_SIZE = 8;
+
+    private final File mFile;
+    private final long mFingerprint;
+
+    DensityCacheFile(File file, long fingerprint) {
+        mFile = file;
+        mFingerprint = fingerprint;
+    }
+
+    /**
+     * 根据影响适配结果的设备和配置参数生成指纹
+     *
+     * @param screenWidth  屏幕宽度
+     * @param screenHeight 屏幕高度
+     * @param initDensity  最初的 density
+     * @param fontScale    字体缩放比例
+     * @param subunits     副单位, {@link me.jessyan.autosize.unit.Subunits#ordinal()}
+     * @return 指纹
+     */
+    static long fingerprint(int screenWidth, int screenHeight, float initDensity, float fontScale, int subunits) {
+        long h = 0x9e3779b97f4a7c15L;
+        h = mix(h ^ screenWidth);
+        h = mix(h ^ screenHeight);
+        h = mix(h ^ Float.floatToIntBits(initDensity));
+        h = mix(h ^ Float.floatToIntBits(fontScale));
+        h = mix(h ^ subunits);
+        return h;
+    }
+
+    /**
+     * 将文件中的记录读入 {@code cache}, 已经存在的 key 不会被覆盖
+     *
+     * @param cache {@link DensityCache}
+     * @return 读入的记录条数, 文件不存在或无效时返回 0
+     */
+    int load(DensityCache cache) {
+        if (!mFile.isFile()) {
+            return 0;
+        }
+        int count;
+        try {
+            count = read(cache);
+        } catch (IOException | RuntimeException e) {
+            count = -1;
+        }
+        if (count < 0) {
+            //文件已经损坏或者已经过期, 删掉后下次保存时重新生成
+            mFile.delete();
+            return 0;
+        }
+        return count;
+    }
+
+    /**
+     * 将 {@code cache} 中的所有记录写入文件, 先写入临时文件再重命名, 保证不会留下只写了一半的文件
+     *
+     * @param cache {@link DensityCache}
+     * @return 写入的记录条数
+     * @throws IOException 写入失败
+     */
+    int save(DensityCache cache) throws IOException {
+        DensityCache.Entries entries = cache.entries();
+        int count = entries.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * ENTRY_SIZE + CHECKSUM_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(mFingerprint).putInt(count);
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < DensityCache.KEY_LENGTH; k++) {
+                buffer.putInt(entries.key(i, k));
+            }
+            DisplayMetricsInfo info = entries.value(i);
+            buffer.putFloat(info.getDensity())
+                    .putInt(info.getDensityDpi())
+                    .putFloat(info.getScaledDensity())
+                    .putFloat(info.getXdpi())
+                    .putInt(info.getScreenWidthDp())
+                    .putInt(info.getScreenHeightDp());
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc32.getValue());
+        buffer.flip();
+
+        File parent = mFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("can not create " + parent);
+        }
+        File temp = new File(mFile.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            out.close();
+        }
+        if (!temp.renameTo(mFile)) {
+            temp.delete();
+            throw new IOException("can not rename " + temp + " to " + mFile);
+        }
+        return count;
+    }
+
+    /**
+     * @return 读入的记录条数, 文件无效时返回 -1
+     */
+    private int read(DensityCache cache) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(mFile, "r");
+        try {
+            long length = file.length();
+            if (length < HEADER_SIZE + CHECKSUM_SIZE || length > Integer.MAX_VALUE) {
+                return -1;
+            }
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != mFingerprint) {
+                return -1;
+            }
+            int count = buffer.getInt();
+            if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE + CHECKSUM_SIZE != length) {
+                return -1;
+            }
+            int dataLength = (int) length - CHECKSUM_SIZE;
+            ByteBuffer data = buffer.duplicate();
+            data.position(0).limit(dataLength);
+            CRC32 crc32 = new CRC32();
+            crc32.update(data);
+            if (crc32.getValue() != buffer.getLong(dataLength)) {
+                return -1;
+            }
+            int[] keys = new int[count * DensityCache.KEY_LENGTH];
+            DisplayMetricsInfo[] values = new DisplayMetricsInfo[count];
+            for (int i = 0; i < count; i++) {
+                for (int k = 0; k < DensityCache.KEY_LENGTH; k++) {
+                    keys[i * DensityCache.KEY_LENGTH + k] = buffer.getInt();
+                }
+                values[i] = new DisplayMetricsInfo(buffer.getFloat(), buffer.getInt(), buffer.getFloat()
+                        , buffer.getFloat(), buffer.getInt(), buffer.getInt());
+            }
+            cache.putAllIfAbsent(keys, values, count);
+            return count;
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * splitmix64 的混合函数
+     */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+/**
+ * ================================================
+ * AndroidAutoSize 的适配参数计算核心, 根据设计图尺寸、屏幕尺寸和字体缩放比例计算出适配后的 {@link DisplayMetricsInfo}
+ * <p>
+ * 此类只包含纯计算逻辑, 不依赖任何 ohos 的类, 可以脱离设备进行单元测试和基准测试
+ * {@link AutoSize} 负责从 {@link AutoSizeConfig} 中读取参数, 并将计算结果应用到 {@code Ability} 上
+ * <p>
+ * 计算结果会被缓存, 参数相同时直接返回缓存中的 {@link DisplayMetricsInfo}, 不会创建任何对象
+ * 此类是线程安全的, 可以在后台线程中预先计算 (详见 {@link AutoSizeConfig#setWarmUp(boolean)})
+ * ================================================
+ */
+public final class DensityCalculator {
+    private final DensityCache mCache;
+    /**
+     * 缓存中新增了记录时回调, 用于安排持久化
+     */
+    private volatile Runnable mOnCacheChangedListener;
+
+    public DensityCalculator() {
+        mCache = new DensityCache();
+    }
+
+    /**
+     * @param maxSize 最多缓存的条目数, 超过时淘汰最久未使用的条目
+     */
+    public DensityCalculator(int maxSize) {
+        mCache = new DensityCache(DensityCache.DEFAULT_CAPACITY, maxSize);
+    }
+
+    /**
+     * 计算适配后的 {@link DisplayMetricsInfo}, 命中缓存时不会创建任何对象
+     *
+     * @param sizeInDp           设计图上的设计尺寸, 单位 dp
+     * @param subunitsDesignSize 设计图上的设计尺寸, 单位为副单位, 小于等于 0 则使用 {@code sizeInDp}
+     * @param screenWidth        屏幕宽度, 单位 px
+     * @param screenHeight       屏幕高度, 单位 px
+     * @param fontScale          字体缩放比例
+     * @param isBaseOnWidth      是否按照宽度进行等比例适配
+     * @param isUseDeviceSize    {@code screenHeight} 是否包含状态栏, 只参与缓存的 key, 不参与计算
+     * @return {@link DisplayMetricsInfo}
+     */
+    public DisplayMetricsInfo calculate(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, boolean isBaseOnWidth, boolean isUseDeviceSize) {
+        DisplayMetricsInfo displayMetricsInfo = getCached(sizeInDp, subunitsDesignSize, screenWidth, screenHeight
+                , fontScale, isBaseOnWidth, isUseDeviceSize);
+        if (displayMetricsInfo == null) {
+            displayMetricsInfo = computeAndCache(sizeInDp, subunitsDesignSize, screenWidth, screenHeight
+                    , fontScale, isBaseOnWidth, isUseDeviceSize);
+        }
+        return displayMetricsInfo;
+    }
+
+    /**
+     * 只查询缓存, 参数与 {@link #calculate} 相同, 计入命中或未命中的统计
+     * 返回值本身就说明了这次查询是否命中, 不受其他线程 (如预热) 同时查询的影响
+     *
+     * @return 没有命中缓存则返回 {@code null}, 之后需要调用 {@link #computeAndCache}
+     */
+    DisplayMetricsInfo getCached(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, boolean isBaseOnWidth, boolean isUseDeviceSize) {
+        return mCache.get(sizeInDp, resolveSubunitsDesignSize(sizeInDp, subunitsDesignSize), screenWidth, screenHeight
+                , fontScale, getFlags(isBaseOnWidth, isUseDeviceSize));
+    }
+
+    /**
+     * 计算并存入缓存, 参数与 {@link #calculate} 相同, 不计入统计
+     *
+     * @return 缓存中最终的 {@link DisplayMetricsInfo}
+     */
+    DisplayMetricsInfo computeAndCache(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, boolean isBaseOnWidth, boolean isUseDeviceSize) {
+        subunitsDesignSize = resolveSubunitsDesignSize(sizeInDp, subunitsDesignSize);
+        DisplayMetricsInfo displayMetricsInfo = compute(sizeInDp, subunitsDesignSize, screenWidth, screenHeight, fontScale, isBaseOnWidth);
+        //预热线程可能同时计算了同一组参数, 以先存入缓存的为准
+        displayMetricsInfo = mCache.putIfAbsent(sizeInDp, subunitsDesignSize, screenWidth, screenHeight, fontScale
+                , getFlags(isBaseOnWidth, isUseDeviceSize), displayMetricsInfo);
+        Runnable listener = mOnCacheChangedListener;
+        if (listener != null) {
+            listener.run();
+        }
+        return displayMetricsInfo;
+    }
+
+    private static int getFlags(boolean isBaseOnWidth, boolean isUseDeviceSize) {
+        int flags = isBaseOnWidth ? DensityCache.FLAG_BASE_ON_WIDTH : 0;
+        return flags | (isUseDeviceSize ? DensityCache.FLAG_USE_DEVICE_SIZE : 0);
+    }
+
+    /**
+     * 不经过缓存, 直接计算适配后的 {@link DisplayMetricsInfo}
+     *
+     * @param sizeInDp           设计图上的设计尺寸, 单位 dp
+     * @param subunitsDesignSize 设计图上的设计尺寸, 单位为副单位, 小于等于 0 则使用 {@code sizeInDp}
+     * @param screenWidth        屏幕宽度, 单位 px
+     * @param screenHeight       屏幕高度, 单位 px
+     * @param fontScale          字体缩放比例
+     * @param isBaseOnWidth      是否按照宽度进行等比例适配
+     * @return {@link DisplayMetricsInfo}
+     */
+    public static DisplayMetricsInfo compute(float sizeInDp, float subunitsDesignSize, int screenWidth, int screenHeight
+            , float fontScale, boolean isBaseOnWidth) {
+        subunitsDesignSize = resolveSubunitsDesignSize(sizeInDp, subunitsDesignSize);
+        int screenSize = isBaseOnWidth ? screenWidth : screenHeight;
+        float targetDensity = screenSize * 1.0f / sizeInDp;
+        float targetXdpi = screenSize * 1.0f / subunitsDesignSize;
+        float targetScaledDensity = targetDensity * fontScale;
+        int targetDensityDpi = (int) (targetDensity * 160);
+        int targetScreenWidthDp = (int) (screenWidth / targetDensity);
+        int targetScreenHeightDp = (int) (screenHeight / targetDensity);
+        return new DisplayMetricsInfo(targetDensity, targetDensityDpi, targetScaledDensity, targetXdpi, targetScreenWidthDp, targetScreenHeightDp);
+    }
+
+    /**
+     * 没有设置副单位的设计图尺寸时, 副单位与 dp 使用相同的设计图尺寸
+     */
+    static float resolveSubunitsDesignSize(float sizeInDp, float subunitsDesignSize) {
+        return subunitsDesignSize > 0 ? subunitsDesignSize : sizeInDp;
+    }
+
+    /**
+     * 删除所有使用 {@code fontScale} 计算的缓存, 字体缩放比例变化后调用
+     *
+     * @param fontScale 变化之前的字体缩放比例
+     * @return 删除的条数
+     */
+    public int invalidateFontScale(float fontScale) {
+        return mCache.removeFontScale(fontScale);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        mCache.clear();
+    }
+
+    int size() {
+        return mCache.size();
+    }
+
+    /**
+     * 设置最多缓存的条目数, 当前条目数超过 {@code maxSize} 时立即淘汰最久未使用的条目
+     *
+     * @param maxSize 最多缓存的条目数
+     */
+    public void setMaxSize(int maxSize) {
+        mCache.setMaxSize(maxSize);
+    }
+
+    /**
+     * @return 缓存的统计数据
+     */
+    public CacheStats getStats() {
+        return mCache.stats();
+    }
+
+    DensityCache getCache() {
+        return mCache;
+    }
+
+    void setOnCacheChangedListener(Runnable listener) {
+        mOnCacheChangedListener = listener;
+    }
+}
@@ -35,7 +35,10 @@ public class WrapperAutoAdaptStrategy implements AutoAdaptStrategy {
 
     @Override
     public void applyAdapt(Object target, Ability ability) {
-        onAdaptListener onAdaptListener = AutoSizeConfig.getInstance().getOnAdaptListener();
+        AutoSizeConfig config = AutoSizeConfig.getInstance();
+        //延迟初始化时, 在第一次适配时才获取屏幕信息等初始化参数
+        config.ensureResolved();
+        onAdaptListener onAdaptListener = config.getOnAdaptListener();
         if (onAdaptListener != null){
             onAdaptListener.onAdaptBefore(target, ability);
         }
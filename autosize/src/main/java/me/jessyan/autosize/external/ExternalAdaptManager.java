@@ -15,10 +15,12 @@
  */
 package me.jessyan.autosize.external;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import me.jessyan.autosize.AutoSizeConfig;
 import me.jessyan.autosize.utils.Preconditions;
@@ -37,9 +39,17 @@ import ohos.aafwk.ability.Ability;
  * ================================================
  */
 public class ExternalAdaptManager {
-    private List<String> mCancelAdaptList;
-    private Map<String, ExternalAdaptInfo> mExternalAdaptInfos;
-    private boolean isRun;
+    /**
+     * 以下两个集合都是写时复制 (copy-on-write) 的, 修改时在锁内复制一份新的集合再整体替换, 读取时不需要加锁
+     * 集合以 {@link Class} 本身作为 key ({@link Class} 没有重写 equals 和 hashCode, 所以按实例比较), 查询时不需要做任何字符串操作
+     */
+    private volatile Set<Class<?>> mCancelAdaptClasses = Collections.emptySet();
+    private volatile Map<Class<?>, ExternalAdaptInfo> mExternalAdaptInfos = Collections.emptyMap();
+    private volatile boolean isRun;
+    /**
+     * 每次修改适配信息或运行状态都会加一, 用来让缓存了适配决策的地方知道需要重新计算
+     */
+    private volatile int mVersion;
 
     /**
      * 将不需要适配的第三方库 {@link Ability} 添加进来 (但不局限于三方库), 即可让该 {@link Ability} 的适配效果失效
@@ -51,13 +61,27 @@ public class ExternalAdaptManager {
      */
     public synchronized ExternalAdaptManager addCancelAdaptOfAbility(Class<?> targetClass) {
         Preconditions.checkNotNull(targetClass, "targetClass == null");
-        if (!isRun) {
-            isRun = true;
-        }
-        if (mCancelAdaptList == null) {
-            mCancelAdaptList = new ArrayList<>();
+        Set<Class<?>> cancelAdaptClasses = new HashSet<>(mCancelAdaptClasses);
+        cancelAdaptClasses.add(targetClass);
+        mCancelAdaptClasses = cancelAdaptClasses;
+        onChanged();
+        return this;
+    }
+
+    /**
+     * 一次性将多个不需要适配的 {@link Ability} 添加进来, 相比多次调用 {@link #addCancelAdaptOfAbility(Class)} 只需要复制一次集合
+     *
+     * @param targetClasses {@link Ability} class, Fragment class
+     * @see #addCancelAdaptOfAbility(Class)
+     */
+    public synchronized ExternalAdaptManager addCancelAdaptOfAbilities(Class<?>... targetClasses) {
+        Preconditions.checkNotNull(targetClasses, "targetClasses == null");
+        Set<Class<?>> cancelAdaptClasses = new HashSet<>(mCancelAdaptClasses);
+        for (Class<?> targetClass : targetClasses) {
+            cancelAdaptClasses.add(Preconditions.checkNotNull(targetClass, "targetClass == null"));
         }
-        mCancelAdaptList.add(targetClass.getCanonicalName());
+        mCancelAdaptClasses = cancelAdaptClasses;
+        onChanged();
         return this;
     }
 
@@ -81,13 +105,28 @@ public class ExternalAdaptManager {
      */
     public synchronized ExternalAdaptManager addExternalAdaptInfoOfAbility(Class<?> targetClass, ExternalAdaptInfo info) {
         Preconditions.checkNotNull(targetClass, "targetClass == null");
-        if (!isRun) {
-            isRun = true;
-        }
-        if (mExternalAdaptInfos == null) {
-            mExternalAdaptInfos = new HashMap<>(16);
+        Map<Class<?>, ExternalAdaptInfo> externalAdaptInfos = new HashMap<>(mExternalAdaptInfos);
+        externalAdaptInfos.put(targetClass, info);
+        mExternalAdaptInfos = externalAdaptInfos;
+        onChanged();
+        return this;
+    }
+
+    /**
+     * 一次性将多个需要提供自定义适配参数的 {@link Ability} 添加进来, 相比多次调用 {@link #addExternalAdaptInfoOfAbility(Class, ExternalAdaptInfo)}
+     * 只需要复制一次集合
+     *
+     * @param infos key 为 {@link Ability} class, Fragment class, value 为 {@link ExternalAdaptInfo} 适配参数
+     * @see #addExternalAdaptInfoOfAbility(Class, ExternalAdaptInfo)
+     */
+    public synchronized ExternalAdaptManager addExternalAdaptInfosOfAbility(Map<Class<?>, ExternalAdaptInfo> infos) {
+        Preconditions.checkNotNull(infos, "infos == null");
+        Map<Class<?>, ExternalAdaptInfo> externalAdaptInfos = new HashMap<>(mExternalAdaptInfos);
+        for (Map.Entry<Class<?>, ExternalAdaptInfo> entry : infos.entrySet()) {
+            externalAdaptInfos.put(Preconditions.checkNotNull(entry.getKey(), "targetClass == null"), entry.getValue());
         }
-        mExternalAdaptInfos.put(targetClass.getCanonicalName(), info);
+        mExternalAdaptInfos = externalAdaptInfos;
+        onChanged();
         return this;
     }
 
@@ -97,12 +136,9 @@ public class ExternalAdaptManager {
      * @param targetClass {@link Ability} class, Fragment class
      * @return {@code true} 为存在, {@code false} 为不存在
      */
-    public synchronized boolean isCancelAdapt(Class<?> targetClass) {
+    public boolean isCancelAdapt(Class<?> targetClass) {
         Preconditions.checkNotNull(targetClass, "targetClass == null");
-        if (mCancelAdaptList == null) {
-            return false;
-        }
-        return mCancelAdaptList.contains(targetClass.getCanonicalName());
+        return mCancelAdaptClasses.contains(targetClass);
     }
 
     /**
@@ -111,12 +147,18 @@ public class ExternalAdaptManager {
      * @param targetClass {@link Ability} class, Fragment class
      * @return 如果返回 {@code null} 则说明该 {@link Ability} 没有提供自定义的适配参数
      */
-    public synchronized ExternalAdaptInfo getExternalAdaptInfoOfActivity(Class<?> targetClass) {
+    public ExternalAdaptInfo getExternalAdaptInfoOfActivity(Class<?> targetClass) {
         Preconditions.checkNotNull(targetClass, "targetClass == null");
-        if (mExternalAdaptInfos == null) {
-            return null;
-        }
-        return mExternalAdaptInfos.get(targetClass.getCanonicalName());
+        return mExternalAdaptInfos.get(targetClass);
+    }
+
+    /**
+     * 返回当前所有的自定义适配参数, 返回的集合不可修改, 也不会随着之后的添加而变化
+     *
+     * @return {@link ExternalAdaptInfo} 集合
+     */
+    public Collection<ExternalAdaptInfo> getExternalAdaptInfos() {
+        return Collections.unmodifiableCollection(mExternalAdaptInfos.values());
     }
 
     /**
@@ -133,8 +175,28 @@ public class ExternalAdaptManager {
      *
      * @param run {@code true} 为让管理器启动运行, {@code false} 为让管理器停止运行
      */
-    public ExternalAdaptManager setRun(boolean run) {
+    public synchronized ExternalAdaptManager setRun(boolean run) {
         isRun = run;
+        mVersion++;
         return this;
     }
+
+    /**
+     * 返回适配信息的版本号, 版本号发生变化说明适配信息或运行状态被修改过
+     *
+     * @return 版本号
+     */
+    public int getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * 添加了适配信息后自动启动管理器, 并让版本号加一, 调用时必须持有 {@code this} 锁
+     */
+    private void onChanged() {
+        if (!isRun) {
+            isRun = true;
+        }
+        mVersion++;
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.unit;
+
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.agp.window.service.DisplayAttributes;
+
+/**
+ * ================================================
+ * 各单位 (px、dp、sp、pt、in、mm) 到 px 的转换系数表, 下标为 {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等单位常量
+ * <p>
+ * 转换系数在创建时一次性计算好, 之后每次单位转换都只是一次按下标取值和一次乘法, 不再需要 {@code switch} 以及 {@code xdpi / 72} 之类的换算
+ * 整个库只有一张当前生效的表, 保存在 {@link UnitsManager#getConversionTable()} 中, AutoSize 每次适配、取消适配以及系统配置变化后重新生成
+ * {@link me.jessyan.autosize.utils.AutoSizeMetrics} 和 {@link AutoSizeUtils} 中的单位转换都使用这张表
+ * <p>
+ * 每个转换系数同时保存了一份 Q16.16 定点数 (乘以 2^16 后四舍五入的 int), 供 {@link #toPxFixed(int, int)} 只用整数运算完成转换
+ * 定点数的系数误差不超过 2^-17, 转换 {@code value} 时的误差不超过 {@code value * 2^-17} px
+ * 所以只有精确值与 .5 的距离小于这个误差时才会舍错, 转换 10000 以内的值时与浮点数的结果最多相差 1px
+ * <p>
+ * 此类是不可变的, 可以在任意线程中使用
+ * ================================================
+ */
+public final class ConversionTable {
+    private static final int UNIT_COUNT = AutoSizeUtils.COMPLEX_UNIT_MM + 1;
+    /**
+     * Q16.16 定点数的小数位数
+     */
+    public static final int FIXED_SHIFT = 16;
+    private static final long FIXED_HALF = 1L << (FIXED_SHIFT - 1);
+
+    private final int mDensityDpi;
+    private final float mScaledDensity;
+    private final float mXdpi;
+    private final float[] mFactors = new float[UNIT_COUNT];
+    /**
+     * {@link #mFactors} 的 Q16.16 定点数
+     */
+    private final int[] mFixedFactors = new int[UNIT_COUNT];
+    /**
+     * 每个副单位到 px 的转换系数, 下标为 {@link Subunits#ordinal()}
+     */
+    private final float[] mSubunitFactors = new float[Subunits.values().length];
+
+    /**
+     * @param densityDpi    {@link DisplayAttributes#densityDpi}, dp 的转换系数
+     * @param scaledDensity {@link DisplayAttributes#scalDensity}, sp 的转换系数
+     * @param xdpi          {@link DisplayAttributes#xDpi}, 每英寸的像素数
+     */
+    public ConversionTable(int densityDpi, float scaledDensity, float xdpi) {
+        mDensityDpi = densityDpi;
+        mScaledDensity = scaledDensity;
+        mXdpi = xdpi;
+        for (Subunits subunits : Subunits.values()) {
+            mSubunitFactors[subunits.ordinal()] = xdpi / subunits.getUnitsPerInch();
+        }
+        for (int unit = 0; unit < UNIT_COUNT; unit++) {
+            mFactors[unit] = getFactor(unit, densityDpi, scaledDensity, xdpi);
+            mFixedFactors[unit] = toFixed(mFactors[unit]);
+        }
+    }
+
+    /**
+     * 不创建转换系数表, 直接计算 {@code unit} 到 px 的转换系数, 与表中的系数完全一致
+     * 供 {@link AutoSizeUtils#applyDimension(int, float, DisplayAttributes)} 这种每次传入不同参数的场景使用
+     *
+     * @param unit    {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param metrics {@link DisplayAttributes}
+     * @return {@code unit} 到 px 的转换系数, 不支持的单位返回 0
+     */
+    public static float getFactor(int unit, DisplayAttributes metrics) {
+        return getFactor(unit, metrics.densityDpi, metrics.scalDensity, metrics.xDpi);
+    }
+
+    private static float getFactor(int unit, int densityDpi, float scaledDensity, float xdpi) {
+        switch (unit) {
+            case AutoSizeUtils.COMPLEX_UNIT_PX:
+                return 1;
+            case AutoSizeUtils.COMPLEX_UNIT_DIP:
+                return densityDpi;
+            case AutoSizeUtils.COMPLEX_UNIT_SP:
+                return scaledDensity;
+            case AutoSizeUtils.COMPLEX_UNIT_PT:
+                return xdpi / Subunits.PT.getUnitsPerInch();
+            case AutoSizeUtils.COMPLEX_UNIT_IN:
+                return xdpi / Subunits.IN.getUnitsPerInch();
+            case AutoSizeUtils.COMPLEX_UNIT_MM:
+                return xdpi / Subunits.MM.getUnitsPerInch();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 转换为 Q16.16 定点数, 超出 int 范围的系数 (大于 32767) 会被截断, 正常的屏幕参数不会出现这种情况
+     */
+    static int toFixed(float factor) {
+        long fixed = Math.round(factor * (double) (1 << FIXED_SHIFT));
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, fixed));
+    }
+
+    /**
+     * 根据 {@link DisplayAttributes} 当前的值生成转换系数表, 之后 {@code metrics} 再被修改也不会影响这张表
+     *
+     * @param metrics {@link DisplayAttributes}
+     * @return {@link ConversionTable}
+     */
+    public static ConversionTable of(DisplayAttributes metrics) {
+        return new ConversionTable(metrics.densityDpi, metrics.scalDensity, metrics.xDpi);
+    }
+
+    /**
+     * @param metrics {@link DisplayAttributes}
+     * @return 这张表是否是根据 {@code metrics} 当前的值生成的, 不一致时需要重新生成
+     */
+    public boolean matches(DisplayAttributes metrics) {
+        return mDensityDpi == metrics.densityDpi
+                && Float.compare(mScaledDensity, metrics.scalDensity) == 0
+                && Float.compare(mXdpi, metrics.xDpi) == 0;
+    }
+
+    /**
+     * @param unit {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @return {@code unit} 到 px 的转换系数, 不支持的单位返回 0
+     */
+    public float getFactor(int unit) {
+        return unit >= 0 && unit < UNIT_COUNT ? mFactors[unit] : 0;
+    }
+
+    /**
+     * @param subunits {@link Subunits}
+     * @return 副单位到 px 的转换系数, {@link Subunits#NONE} 返回 {@code xdpi} 本身
+     */
+    public float getFactor(Subunits subunits) {
+        return mSubunitFactors[subunits.ordinal()];
+    }
+
+    /**
+     * 将 {@code value} 从 {@code unit} 转换为 px
+     *
+     * @param unit  {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param value 需要转换的值
+     * @return 转换后的像素值 (未取整)
+     */
+    public float applyDimension(int unit, float value) {
+        return value * getFactor(unit);
+    }
+
+    /**
+     * @param unit {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @return {@code unit} 到 px 的转换系数的 Q16.16 定点数, 不支持的单位返回 0
+     */
+    public int getFixedFactor(int unit) {
+        return unit >= 0 && unit < UNIT_COUNT ? mFixedFactors[unit] : 0;
+    }
+
+    /**
+     * 将整数 {@code value} 从 {@code unit} 转换为 px 并四舍五入, 只使用整数运算, 详见类注释中的误差说明
+     * 负数的结果为 {@code floor(x + 0.5)}, 与 {@link #toPx(int, float)} 向零取整的结果可能相差 1px
+     *
+     * @param unit  {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param value 需要转换的值
+     * @return 转换后的像素值
+     */
+    public int toPxFixed(int unit, int value) {
+        return fixedToPx(value, getFixedFactor(unit));
+    }
+
+    /**
+     * @param value       需要转换的值
+     * @param fixedFactor {@link #getFixedFactor(int)}
+     * @return {@code value * fixedFactor} 四舍五入后的整数部分
+     */
+    public static int fixedToPx(int value, int fixedFactor) {
+        //乘积可能超出 int, 使用 long 保存, 仍然只是一次整数乘法
+        return (int) (((long) value * fixedFactor + FIXED_HALF) >> FIXED_SHIFT);
+    }
+
+    /**
+     * 将 {@code value} 从 {@code unit} 转换为 px, 并四舍五入
+     *
+     * @param unit  {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param value 需要转换的值
+     * @return 转换后的像素值
+     */
+    public int toPx(int unit, float value) {
+        return (int) (value * getFactor(unit) + 0.5f);
+    }
+}
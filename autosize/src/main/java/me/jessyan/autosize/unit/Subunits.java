@@ -27,20 +27,35 @@ public enum Subunits {
     /**
      * 不使用副单位
      */
-    NONE,
+    NONE(1f),
     /**
      * 单位 pt
      *
      */
-    PT,
+    PT(72f),
     /**
      * 单位 in
      *
      */
-    IN,
+    IN(1f),
     /**
      * 单位 mm
      *
      */
-    MM
+    MM(25.4f);
+
+    private final float mUnitsPerInch;
+
+    Subunits(float unitsPerInch) {
+        mUnitsPerInch = unitsPerInch;
+    }
+
+    /**
+     * 一英寸等于多少个此单位, {@link #NONE} 返回 1, 即不做换算
+     *
+     * @return 一英寸等于多少个此单位
+     */
+    public float getUnitsPerInch() {
+        return mUnitsPerInch;
+    }
 }
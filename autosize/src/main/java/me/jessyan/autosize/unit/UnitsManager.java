@@ -71,6 +71,10 @@ public class UnitsManager {
      * 是否支持 ScreenSizeDp 修改, 默认不支持
      */
     private boolean isSupportScreenSizeDP = false;
+    /**
+     * 当前适配状态下各单位到 px 的转换系数, AutoSize 每次适配、取消适配以及系统配置变化后重新生成
+     */
+    private volatile ConversionTable mConversionTable;
 
     /**
      * 设置设计图尺寸
@@ -209,4 +213,26 @@ public class UnitsManager {
                 "The supportSubunits can not be null, use Subunits.NONE instead");
         return this;
     }
+
+    /**
+     * 返回当前适配状态下各单位到 px 的转换系数表, 每次单位转换只需要一次按下标取值和一次乘法
+     * {@link me.jessyan.autosize.utils.AutoSizeMetrics} 和 {@link me.jessyan.autosize.utils.AutoSizeUtils} 中的单位转换都使用这张表
+     * 在第一次获取屏幕信息之前返回 {@code null}
+     *
+     * @return {@link ConversionTable}
+     */
+    public ConversionTable getConversionTable() {
+        return mConversionTable;
+    }
+
+    /**
+     * 替换当前的转换系数表, AutoSize 在初始化、每次适配、取消适配以及系统配置变化后调用
+     * 使用者一般不需要调用此方法, 只有自己修改了 DisplayAttributes 时才需要通过此方法同步
+     *
+     * @param conversionTable {@link ConversionTable}
+     */
+    public UnitsManager setConversionTable(ConversionTable conversionTable) {
+        mConversionTable = Preconditions.checkNotNull(conversionTable, "conversionTable == null");
+        return this;
+    }
 }
@@ -19,46 +19,169 @@ package me.jessyan.autosize.utils;
 import ohos.hiviewdfx.HiLog;
 import ohos.hiviewdfx.HiLogLabel;
 
+import java.util.Locale;
+import java.util.function.Supplier;
+
 /**
  * ================================================
+ * AndroidAutoSize 的日志门面, 所有日志都必须经过此类输出, 不要在其他地方直接调用 {@link HiLog}
+ * <p>
+ * 三层开关, 由外到内:
+ * 1. {@link #ENABLED} 是编译期常量, 改为 {@code false} 后, 调用处使用 {@code if (AutoSizeLog.ENABLED && ...)} 包裹的日志代码会被编译器直接删除
+ * 2. {@link #setLevel(int)} 运行时按级别过滤, 默认为 {@link #NONE}, 即不输出任何日志
+ * 3. 低于当前级别的日志不会格式化消息, 也不会调用 {@link Supplier#get()}
+ * <p>
+ * 适配路径上的日志应该写成:
+ * <pre>
+ * if (AutoSizeLog.ENABLED &amp;&amp; AutoSizeLog.isDebug()) {
+ *     AutoSizeLog.d("%s has been adapted", ability.getClass().getName());
+ * }
+ * </pre>
+ * 这样关闭日志时既不会拼接字符串, 也不会装箱参数
+ * <p>
  * Created by JessYan on 2018/8/8 18:48
  * <a href="mailto:jess.yan.effort@gmail.com">Contact me</a>
  * <a href="https://github.com/JessYanCoding">Follow me</a>
  * ================================================
  */
 public class AutoSizeLog {
+    /**
+     * 编译期的日志总开关, 发布版本可以改为 {@code false}, 所有日志代码都会在编译时被删除
+     */
+    public static final boolean ENABLED = true;
+
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    /**
+     * 不输出任何日志
+     */
+    public static final int NONE = Integer.MAX_VALUE;
+
     private static final String TAG = "AndroidAutoSize";
-    private static boolean debug;
-    static final HiLogLabel label = new HiLogLabel(HiLog.LOG_APP, 0x00201, "MY_TAG");
+    static final HiLogLabel label = new HiLogLabel(HiLog.LOG_APP, 0x00201, TAG);
+    /**
+     * 消息已经格式化完成, 使用 public 输出, 否则 HiLog 会将内容显示为 &lt;private&gt;, 也避免消息中的 % 被当作格式符
+     */
+    private static final String PUBLIC_FORMAT = "%{public}s";
+    private static volatile int sLevel = NONE;
 
     private AutoSizeLog() {
         throw new IllegalStateException("you can't instantiate me!");
     }
 
+    /**
+     * 设置输出日志的最低级别
+     *
+     * @param level {@link #DEBUG}、{@link #INFO}、{@link #WARN}、{@link #ERROR}、{@link #NONE}
+     */
+    public static void setLevel(int level) {
+        sLevel = level;
+    }
+
+    public static int getLevel() {
+        return sLevel;
+    }
+
+    /**
+     * @param level 日志级别
+     * @return {@code level} 级别的日志是否会被输出
+     */
+    public static boolean isLoggable(int level) {
+        return ENABLED && level >= sLevel;
+    }
+
     public static boolean isDebug() {
-        return debug;
+        return isLoggable(DEBUG);
     }
 
+    /**
+     * @param debug {@code true} 输出所有级别的日志, {@code false} 不输出任何日志
+     */
     public static void setDebug(boolean debug) {
-        AutoSizeLog.debug = debug;
+        sLevel = debug ? DEBUG : NONE;
     }
 
     public static void d(String message) {
+        if (isLoggable(DEBUG)) {
+            HiLog.debug(label, PUBLIC_FORMAT, message);
+        }
+    }
 
-        if (debug) {
-            HiLog.debug(label,message);
+    /**
+     * @param format {@link String#format(Locale, String, Object...)} 的格式, 只有会被输出时才格式化
+     */
+    public static void d(String format, Object... args) {
+        if (isLoggable(DEBUG)) {
+            HiLog.debug(label, PUBLIC_FORMAT, format(format, args));
+        }
+    }
+
+    /**
+     * @param message 只有会被输出时才调用
+     */
+    public static void d(Supplier<String> message) {
+        if (isLoggable(DEBUG)) {
+            HiLog.debug(label, PUBLIC_FORMAT, message.get());
+        }
+    }
+
+    public static void i(String message) {
+        if (isLoggable(INFO)) {
+            HiLog.info(label, PUBLIC_FORMAT, message);
+        }
+    }
+
+    public static void i(String format, Object... args) {
+        if (isLoggable(INFO)) {
+            HiLog.info(label, PUBLIC_FORMAT, format(format, args));
+        }
+    }
+
+    public static void i(Supplier<String> message) {
+        if (isLoggable(INFO)) {
+            HiLog.info(label, PUBLIC_FORMAT, message.get());
         }
     }
 
     public static void w(String message) {
-        if (debug) {
-            HiLog.warn(label,message);
+        if (isLoggable(WARN)) {
+            HiLog.warn(label, PUBLIC_FORMAT, message);
+        }
+    }
+
+    public static void w(String format, Object... args) {
+        if (isLoggable(WARN)) {
+            HiLog.warn(label, PUBLIC_FORMAT, format(format, args));
+        }
+    }
+
+    public static void w(Supplier<String> message) {
+        if (isLoggable(WARN)) {
+            HiLog.warn(label, PUBLIC_FORMAT, message.get());
         }
     }
 
     public static void e(String message) {
-        if (debug) {
-            HiLog.error(label,message);
+        if (isLoggable(ERROR)) {
+            HiLog.error(label, PUBLIC_FORMAT, message);
         }
     }
+
+    public static void e(String format, Object... args) {
+        if (isLoggable(ERROR)) {
+            HiLog.error(label, PUBLIC_FORMAT, format(format, args));
+        }
+    }
+
+    public static void e(Supplier<String> message) {
+        if (isLoggable(ERROR)) {
+            HiLog.error(label, PUBLIC_FORMAT, message.get());
+        }
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ENGLISH, format, args);
+    }
 }
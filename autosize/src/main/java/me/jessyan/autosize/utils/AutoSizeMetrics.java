@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.utils;
+
+import me.jessyan.autosize.AutoSizeConfig;
+import me.jessyan.autosize.unit.ConversionTable;
+import me.jessyan.autosize.unit.UnitsManager;
+import ohos.agp.window.service.DisplayAttributes;
+import ohos.agp.window.service.DisplayManager;
+import ohos.app.Context;
+
+import static me.jessyan.autosize.utils.Preconditions.checkArgument;
+import static me.jessyan.autosize.utils.Preconditions.checkNotNull;
+
+/**
+ * ================================================
+ * {@link UnitsManager#getConversionTable()} 的包装, 供 {@link AutoSizeUtils} 中的单位转换使用
+ * <p>
+ * 转换系数表由 AutoSize 在每次适配、取消适配以及系统配置变化后重新生成, 此类只读取这张表, 不会自己再生成
+ * 一次单位转换只是从 {@link ConversionTable} 中按下标取出转换系数, 再做一次乘法和一次取整, 不会访问 {@link DisplayManager}
+ * 自定义 View 在 onDraw、onMeasure 中频繁转换单位时可以直接持有 {@link #get(Context)} 的返回值, 重新适配后需要再次获取
+ * <p>
+ * 此类是不可变的, 可以在任意线程中使用
+ * ================================================
+ */
+public final class AutoSizeMetrics {
+    /**
+     * 最近一次返回的实例, 转换系数表没有重新生成时直接返回, 不会创建任何对象
+     */
+    private static volatile AutoSizeMetrics sCurrent;
+
+    private final ConversionTable mConversionTable;
+
+    AutoSizeMetrics(ConversionTable conversionTable) {
+        mConversionTable = conversionTable;
+    }
+
+    /**
+     * 获取使用当前转换系数表的 {@link AutoSizeMetrics}
+     * 还未获取屏幕信息 (未初始化或者延迟初始化时还未进行第一次适配) 时没有转换系数表, 使用 {@code context} 所在的 {@link DisplayAttributes} 临时计算
+     * 如果你自己修改了 {@link DisplayAttributes}, 需要通过 {@link UnitsManager#setConversionTable(ConversionTable)} 替换转换系数表
+     *
+     * @param context {@link Context}
+     * @return {@link AutoSizeMetrics}
+     */
+    public static AutoSizeMetrics get(Context context) {
+        ConversionTable table = AutoSizeConfig.getInstance().getUnitsManager().getConversionTable();
+        if (table == null) {
+            return new AutoSizeMetrics(ConversionTable.of(DisplayManager.getInstance().getDefaultDisplay(context).get().getAttributes()));
+        }
+        AutoSizeMetrics current = sCurrent;
+        if (current == null || current.mConversionTable != table) {
+            current = new AutoSizeMetrics(table);
+            sCurrent = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return 使用的 {@link ConversionTable}
+     */
+    public ConversionTable getConversionTable() {
+        return mConversionTable;
+    }
+
+    public int dp2px(float value) {
+        return mConversionTable.toPx(AutoSizeUtils.COMPLEX_UNIT_DIP, value);
+    }
+
+    public int sp2px(float value) {
+        return mConversionTable.toPx(AutoSizeUtils.COMPLEX_UNIT_SP, value);
+    }
+
+    public int pt2px(float value) {
+        return mConversionTable.toPx(AutoSizeUtils.COMPLEX_UNIT_PT, value);
+    }
+
+    public int in2px(float value) {
+        return mConversionTable.toPx(AutoSizeUtils.COMPLEX_UNIT_IN, value);
+    }
+
+    public int mm2px(float value) {
+        return mConversionTable.toPx(AutoSizeUtils.COMPLEX_UNIT_MM, value);
+    }
+
+    /**
+     * 以下是定点数转换方法, 只接受整数尺寸, 整个转换过程只有整数运算, 误差详见 {@link ConversionTable}
+     */
+    public int dp2pxFixed(int value) {
+        return mConversionTable.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_DIP, value);
+    }
+
+    public int sp2pxFixed(int value) {
+        return mConversionTable.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_SP, value);
+    }
+
+    public int pt2pxFixed(int value) {
+        return mConversionTable.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_PT, value);
+    }
+
+    public int in2pxFixed(int value) {
+        return mConversionTable.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_IN, value);
+    }
+
+    public int mm2pxFixed(int value) {
+        return mConversionTable.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_MM, value);
+    }
+
+    /**
+     * 与 {@link AutoSizeUtils#applyDimension(int, float, DisplayAttributes)} 的计算方式完全一致, 只是使用快照中的参数
+     *
+     * @param unit  {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param value 需要转换的值
+     * @return 转换后的像素值 (未取整)
+     */
+    public float applyDimension(int unit, float value) {
+        return mConversionTable.applyDimension(unit, value);
+    }
+
+    /**
+     * 批量转换, 返回取整后的像素值, 计算方式与 {@link #applyDimension(int, float)} 完全一致
+     * 转换系数只会计算一次, 循环体中没有分支, 方便 JIT 进行自动向量化
+     *
+     * @param unit   {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param values 需要转换的值
+     * @return 新的数组
+     */
+    public int[] toPx(int unit, float[] values) {
+        checkNotNull(values, "values == null");
+        int[] result = new int[values.length];
+        toPx(unit, values, result);
+        return result;
+    }
+
+    /**
+     * 批量转换, 返回取整后的像素值
+     *
+     * @param unit   {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param values 需要转换的值
+     * @return 新的数组
+     */
+    public int[] toPx(int unit, int[] values) {
+        checkNotNull(values, "values == null");
+        int[] result = new int[values.length];
+        toPx(unit, values, result);
+        return result;
+    }
+
+    /**
+     * 批量转换, 结果写入 {@code dst}, 可以重复使用同一个 {@code dst} 避免分配新的数组
+     *
+     * @param unit {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param src  需要转换的值
+     * @param dst  长度不能小于 {@code src}
+     */
+    public void toPx(int unit, float[] src, int[] dst) {
+        checkNotNull(src, "src == null");
+        checkNotNull(dst, "dst == null");
+        checkArgument(dst.length >= src.length, "dst.length < src.length");
+        float factor = mConversionTable.getFactor(unit);
+        for (int i = 0; i < src.length; i++) {
+            dst[i] = (int) (src[i] * factor + 0.5f);
+        }
+    }
+
+    /**
+     * 批量转换, 结果写入 {@code dst}, {@code src} 和 {@code dst} 可以是同一个数组
+     *
+     * @param unit {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param src  需要转换的值
+     * @param dst  长度不能小于 {@code src}
+     */
+    public void toPx(int unit, int[] src, int[] dst) {
+        checkNotNull(src, "src == null");
+        checkNotNull(dst, "dst == null");
+        checkArgument(dst.length >= src.length, "dst.length < src.length");
+        float factor = mConversionTable.getFactor(unit);
+        for (int i = 0; i < src.length; i++) {
+            dst[i] = (int) (src[i] * factor + 0.5f);
+        }
+    }
+
+    /**
+     * 定点数批量转换, 结果写入 {@code dst}, {@code src} 和 {@code dst} 可以是同一个数组
+     * 与 {@link #toPx(int, int[], int[])} 的结果最多相差 1px, 详见 {@link ConversionTable}
+     *
+     * @param unit {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param src  需要转换的值
+     * @param dst  长度不能小于 {@code src}
+     */
+    public void toPxFixed(int unit, int[] src, int[] dst) {
+        checkNotNull(src, "src == null");
+        checkNotNull(dst, "dst == null");
+        checkArgument(dst.length >= src.length, "dst.length < src.length");
+        int fixedFactor = mConversionTable.getFixedFactor(unit);
+        for (int i = 0; i < src.length; i++) {
+            dst[i] = ConversionTable.fixedToPx(src[i], fixedFactor);
+        }
+    }
+
+    /**
+     * 原地批量转换, 转换后的值为取整后的像素值
+     *
+     * @param unit   {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param values 需要转换的值
+     */
+    public void toPxInPlace(int unit, int[] values) {
+        toPx(unit, values, values);
+    }
+
+    /**
+     * 原地批量转换, 转换后的值为未取整的像素值, 与 {@link #applyDimension(int, float)} 的返回值一致
+     *
+     * @param unit   {@link AutoSizeUtils#COMPLEX_UNIT_PX} 等
+     * @param values 需要转换的值
+     */
+    public void toPxInPlace(int unit, float[] values) {
+        checkNotNull(values, "values == null");
+        float factor = mConversionTable.getFactor(unit);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values[i] * factor;
+        }
+    }
+}
@@ -16,9 +16,9 @@
 package me.jessyan.autosize.utils;
 
 
+import me.jessyan.autosize.unit.ConversionTable;
 import ohos.aafwk.ability.AbilityPackage;
 import ohos.agp.window.service.DisplayAttributes;
-import ohos.agp.window.service.DisplayManager;
 import ohos.app.Context;
 
 import java.lang.reflect.InvocationTargetException;
@@ -52,34 +52,79 @@ public class AutoSizeUtils {
         throw new IllegalStateException("you can't instantiate me!");
     }
 
+    /**
+     * 以下单位转换方法使用 {@link AutoSizeMetrics}, 即 {@link me.jessyan.autosize.unit.UnitsManager#getConversionTable()} 中的转换系数
+     * 不会在每次调用时都重新获取 {@link DisplayAttributes}
+     */
     public static int dp2px(Context context, float value) {
-        DisplayAttributes activityDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(context).get().getAttributes();
-        return (int) (applyDimension(COMPLEX_UNIT_DIP, value, activityDisplayMetrics) + 0.5f);
+        return AutoSizeMetrics.get(context).dp2px(value);
     }
 
     public static int sp2px(Context context, float value) {
-        DisplayAttributes activityDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(context).get().getAttributes();
-        return (int) (applyDimension(COMPLEX_UNIT_SP, value, activityDisplayMetrics) + 0.5f);
+        return AutoSizeMetrics.get(context).sp2px(value);
     }
 
     public static int pt2px(Context context, float value) {
-        DisplayAttributes activityDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(context).get().getAttributes();
-        return (int) (applyDimension(COMPLEX_UNIT_PT, value, activityDisplayMetrics) + 0.5f);
+        return AutoSizeMetrics.get(context).pt2px(value);
     }
 
     public static int in2px(Context context, float value) {
-        DisplayAttributes activityDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(context).get().getAttributes();
-        return (int) (applyDimension(COMPLEX_UNIT_IN, value, activityDisplayMetrics) + 0.5f);
+        return AutoSizeMetrics.get(context).in2px(value);
     }
 
     public static int mm2px(Context context, float value) {
-        DisplayAttributes activityDisplayMetrics = DisplayManager.getInstance()
-                .getDefaultDisplay(context).get().getAttributes();
-        return (int) (applyDimension(COMPLEX_UNIT_MM, value, activityDisplayMetrics) + 0.5f);
+        return AutoSizeMetrics.get(context).mm2px(value);
+    }
+
+    /**
+     * 以下是定点数转换方法, 只接受整数尺寸, 转换过程中只有整数运算, 适合每帧需要转换大量尺寸的场景
+     * 与上面浮点数版本的结果最多相差 1px, 详见 {@link ConversionTable}
+     */
+    public static int dp2pxFixed(Context context, int value) {
+        return AutoSizeMetrics.get(context).dp2pxFixed(value);
+    }
+
+    public static int sp2pxFixed(Context context, int value) {
+        return AutoSizeMetrics.get(context).sp2pxFixed(value);
+    }
+
+    public static int pt2pxFixed(Context context, int value) {
+        return AutoSizeMetrics.get(context).pt2pxFixed(value);
+    }
+
+    public static int in2pxFixed(Context context, int value) {
+        return AutoSizeMetrics.get(context).in2pxFixed(value);
+    }
+
+    public static int mm2pxFixed(Context context, int value) {
+        return AutoSizeMetrics.get(context).mm2pxFixed(value);
+    }
+
+    public static void toPxFixed(Context context, int unit, int[] src, int[] dst) {
+        AutoSizeMetrics.get(context).toPxFixed(unit, src, dst);
+    }
+
+    /**
+     * 以下批量转换方法在整个数组的转换过程中只会获取一次转换系数, 详见 {@link AutoSizeMetrics#toPx(int, float[], int[])}
+     */
+    public static int[] toPx(Context context, int unit, float[] values) {
+        return AutoSizeMetrics.get(context).toPx(unit, values);
+    }
+
+    public static int[] toPx(Context context, int unit, int[] values) {
+        return AutoSizeMetrics.get(context).toPx(unit, values);
+    }
+
+    public static void toPx(Context context, int unit, float[] src, int[] dst) {
+        AutoSizeMetrics.get(context).toPx(unit, src, dst);
+    }
+
+    public static void toPxInPlace(Context context, int unit, int[] values) {
+        AutoSizeMetrics.get(context).toPxInPlace(unit, values);
+    }
+
+    public static void toPxInPlace(Context context, int unit, float[] values) {
+        AutoSizeMetrics.get(context).toPxInPlace(unit, values);
     }
 
     /**
@@ -108,21 +153,16 @@ public class AutoSizeUtils {
         throw new NullPointerException("you should init first");
     }
 
+    /**
+     * 将 {@code value} 从 {@code unit} 转换为 px, 使用 {@code metrics} 当前的值直接计算转换系数, 不会创建任何对象
+     * 转换系数与 {@link ConversionTable} 中的完全一致
+     *
+     * @param unit    {@link #COMPLEX_UNIT_PX} 等
+     * @param value   需要转换的值
+     * @param metrics {@link DisplayAttributes}
+     * @return 转换后的像素值 (未取整), 不支持的单位返回 0
+     */
     public static float applyDimension(int unit, float value, DisplayAttributes metrics) {
-        switch (unit) {
-            case COMPLEX_UNIT_PX:
-                return value;
-            case COMPLEX_UNIT_DIP:
-                return value * metrics.densityDpi;
-            case COMPLEX_UNIT_SP:
-                return value * metrics.scalDensity;
-            case COMPLEX_UNIT_PT:
-                return value * metrics.xDpi * (1.0f/72);
-            case COMPLEX_UNIT_IN:
-                return value * metrics.xDpi;
-            case COMPLEX_UNIT_MM:
-                return value * metrics.xDpi * (1.0f/25.4f);
-        }
-        return 0;
+        return value * ConversionTable.getFactor(unit, metrics);
     }
 }
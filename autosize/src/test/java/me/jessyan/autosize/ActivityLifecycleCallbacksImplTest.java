@@ -0,0 +1,63 @@
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.Ability;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ActivityLifecycleCallbacksImplTest {
+
+    private static final class RecordingStrategy implements AutoAdaptStrategy {
+        final List<Ability> adapted = new ArrayList<>();
+
+        @Override
+        public void applyAdapt(Object target, Ability ability) {
+            adapted.add(ability);
+        }
+    }
+
+    @Test
+    public void registryTracksStartedAbilitiesUntilStopped() {
+        RecordingStrategy strategy = new RecordingStrategy();
+        ActivityLifecycleCallbacksImpl callbacks = new ActivityLifecycleCallbacksImpl(strategy);
+        Ability visible = new Ability();
+        Ability background = new Ability();
+        Ability stopped = new Ability();
+        callbacks.onAbilityStart(visible);
+        callbacks.onAbilityStart(background);
+        callbacks.onAbilityStart(stopped);
+        callbacks.onAbilityBackground(background);
+        callbacks.onAbilityStop(stopped);
+        assertEquals(2, callbacks.getAbilityCount());
+        strategy.adapted.clear();
+
+        //不可见的先适配, 最终生效的是可见页面的适配参数
+        callbacks.reAdaptAbilities();
+        assertEquals(Arrays.asList(background, visible), strategy.adapted);
+
+        //没有启动过的页面不会因为退到后台而加入
+        callbacks.onAbilityBackground(new Ability());
+        assertEquals(2, callbacks.getAbilityCount());
+    }
+
+    @Test
+    public void registryDoesNotLeakAbilities() throws Exception {
+        ActivityLifecycleCallbacksImpl callbacks = new ActivityLifecycleCallbacksImpl(new AutoAdaptStrategy() {
+            @Override
+            public void applyAdapt(Object target, Ability ability) {
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            callbacks.onAbilityStart(new Ability());
+        }
+        for (int i = 0; i < 50 && callbacks.getAbilityCount() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, callbacks.getAbilityCount());
+    }
+}
@@ -0,0 +1,41 @@
+package me.jessyan.autosize;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptSnapshotTest {
+
+    @Test
+    public void settersPublishNewVersionWithoutTouchingOldSnapshot() {
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(720)
+                .setScreenHeight(1280)
+                .setStatusBarHeight(48)
+                .setUseDeviceSize(false);
+        AutoSizeConfig.AdaptSnapshot before = config.getSnapshot();
+
+        config.setScreenWidth(1080).setScreenHeight(1920).setUseDeviceSize(true);
+        AutoSizeConfig.AdaptSnapshot after = config.getSnapshot();
+
+        assertNotSame(before, after);
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(720, before.getScreenWidth());
+        assertEquals(1280 - 48, before.getScreenHeight());
+        assertEquals(1080, after.getScreenWidth());
+        assertEquals(1920, after.getScreenHeight());
+        assertEquals(after.getScreenHeight(), config.getScreenHeight());
+    }
+
+    @Test
+    public void fontScalePrefersPrivateFontScale() {
+        AutoSizeConfig config = AutoSizeConfig.getInstance().setExcludeFontScale(true).setPrivateFontScale(0);
+        assertEquals(1f, config.getSnapshot().getFontScale(), 0f);
+
+        config.setPrivateFontScale(1.3f);
+        assertEquals(1.3f, config.getSnapshot().getFontScale(), 0f);
+        config.setPrivateFontScale(0);
+    }
+}
@@ -0,0 +1,164 @@
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.internal.CancelAdapt;
+import me.jessyan.autosize.internal.CustomAdapt;
+import ohos.aafwk.ability.Ability;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptTracerTest {
+
+    public static class TracedAbility extends Ability implements CustomAdapt {
+        @Override
+        public boolean isBaseOnWidth() {
+            return true;
+        }
+
+        @Override
+        public float getSizeInDp() {
+            return 411.5f;
+        }
+    }
+
+    public static class CanceledAbility extends Ability implements CancelAdapt {
+    }
+
+    private static void record(AdaptTracer tracer, Class<?> abilityClass, AdaptType type, boolean cacheHit, long durationNanos) {
+        tracer.begin();
+        tracer.onAdapted(type, null, cacheHit);
+        tracer.end(abilityClass, durationNanos);
+    }
+
+    private static AutoSizeConfig initConfig() {
+        TestEnvironment.init();
+        AutoSize.clearCache();
+        return AutoSizeConfig.getInstance()
+                .setScreenWidth(1080)
+                .setScreenHeight(2340)
+                .setExcludeFontScale(true);
+    }
+
+    @Test
+    public void ringBufferKeepsLatestRecordsInOrder() {
+        AdaptTracer tracer = new AdaptTracer(4);
+        for (int i = 0; i < 10; i++) {
+            record(tracer, Ability.class, AdaptType.GLOBAL, false, i);
+        }
+        List<AdaptRecord> records = tracer.getRecords();
+        assertEquals(4, records.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(6 + i, records.get(i).getDurationNanos());
+        }
+
+        tracer.clear();
+        assertTrue(tracer.getRecords().isEmpty());
+        //清空后从头开始记录
+        record(tracer, Ability.class, AdaptType.GLOBAL, false, 42);
+        assertEquals(1, tracer.getRecords().size());
+        assertEquals(42, tracer.getRecords().get(0).getDurationNanos());
+    }
+
+    @Test
+    public void summarizeComputesPercentilesPerAbilityClass() {
+        AdaptTracer tracer = new AdaptTracer(256);
+        for (int i = 1; i <= 100; i++) {
+            record(tracer, TracedAbility.class, AdaptType.CUSTOM, i % 4 != 0, i * 1000L);
+        }
+        record(tracer, CanceledAbility.class, AdaptType.CANCEL, false, 7);
+
+        Map<Class<?>, AdaptTraceSummary> summaries = tracer.summarize();
+        assertEquals(2, summaries.size());
+        AdaptTraceSummary traced = summaries.get(TracedAbility.class);
+        assertEquals(100, traced.getCount());
+        assertEquals(75, traced.getCacheHitCount());
+        assertEquals(50_000, traced.getP50Nanos());
+        assertEquals(99_000, traced.getP99Nanos());
+        assertEquals(100_000, traced.getMaxNanos());
+        assertEquals(7, summaries.get(CanceledAbility.class).getP99Nanos());
+    }
+
+    @Test
+    public void recordsDecisionCacheResultAndDisplayMetricsInfo() {
+        AdaptTracer tracer = initConfig().getAdaptTracer();
+        ActivityLifecycleCallbacksImpl callbacks = new ActivityLifecycleCallbacksImpl(new DefaultAutoAdaptStrategy());
+        Ability traced = new TracedAbility();
+        Ability canceled = new CanceledAbility();
+
+        //关闭时不产生任何记录
+        callbacks.onAbilityStart(traced);
+        assertTrue(tracer.getRecords().isEmpty());
+
+        tracer.setEnabled(true);
+        try {
+            AutoSize.clearCache();
+            callbacks.onAbilityStart(traced);
+            callbacks.onAbilityActive(traced);
+            callbacks.onAbilityStart(canceled);
+        } finally {
+            tracer.setEnabled(false);
+        }
+
+        List<AdaptRecord> records = tracer.getRecords();
+        tracer.clear();
+        assertEquals(3, records.size());
+        AdaptRecord miss = records.get(0);
+        AdaptRecord hit = records.get(1);
+        assertSame(TracedAbility.class, miss.getAbilityClass());
+        assertEquals(AdaptType.CUSTOM, miss.getType());
+        assertFalse(miss.isCacheHit());
+        assertTrue(hit.isCacheHit());
+        assertNotNull(miss.getDisplayMetricsInfo());
+        assertSame(miss.getDisplayMetricsInfo(), hit.getDisplayMetricsInfo());
+        assertTrue(hit.getDurationNanos() >= 0);
+
+        AdaptRecord cancel = records.get(2);
+        assertEquals(AdaptType.CANCEL, cancel.getType());
+        assertFalse(cancel.isCacheHit());
+        assertNull(cancel.getDisplayMetricsInfo());
+    }
+
+    @Test
+    public void recordsAnyStrategyWithoutStaleResults() {
+        AdaptTracer tracer = initConfig().getAdaptTracer();
+        final boolean[] adapt = {true};
+        //自定义的策略直接调用 AutoSize 的适配方法, 并且被 WrapperAutoAdaptStrategy 包装
+        ActivityLifecycleCallbacksImpl callbacks = new ActivityLifecycleCallbacksImpl(new WrapperAutoAdaptStrategy(new AutoAdaptStrategy() {
+            @Override
+            public void applyAdapt(Object target, Ability ability) {
+                if (adapt[0]) {
+                    AutoSize.autoConvertDensityOfGlobal(ability);
+                }
+            }
+        }));
+        Ability ability = new Ability();
+
+        tracer.setEnabled(true);
+        try {
+            callbacks.onAbilityStart(ability);
+            //没有调用任何适配方法时不记录
+            adapt[0] = false;
+            callbacks.onAbilityActive(ability);
+            //直接调用适配方法留下的结果不会被之后的记录使用
+            AutoSize.autoConvertDensityOfGlobal(ability);
+            callbacks.reAdaptAbilities();
+        } finally {
+            tracer.setEnabled(false);
+        }
+
+        List<AdaptRecord> records = tracer.getRecords();
+        tracer.clear();
+        assertEquals(1, records.size());
+        assertEquals(AdaptType.GLOBAL, records.get(0).getType());
+        assertFalse(records.get(0).isCacheHit());
+        assertNotNull(records.get(0).getDisplayMetricsInfo());
+    }
+}
@@ -0,0 +1,87 @@
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.aafwk.ability.Ability;
+import ohos.agp.window.service.DisplayAttributes;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AutoSizeAllocationTest {
+    private static final int ITERATIONS = 100_000;
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+
+    @Test
+    public void cacheHitDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+
+        TestEnvironment.init();
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(1080)
+                .setScreenHeight(2340)
+                .setExcludeFontScale(true);
+        AutoSizeConfig.AdaptSnapshot snapshot = config.getSnapshot();
+        Ability ability = new Ability();
+        AutoSize.autoConvertDensity(ability, snapshot, 360, true);
+        long threadId = Thread.currentThread().getId();
+
+        //预热, 让热点代码完成编译
+        for (int i = 0; i < ITERATIONS; i++) {
+            AutoSize.autoConvertDensity(ability, snapshot, 360, true);
+        }
+        long hitCount = config.getCacheStats().getHitCount();
+        threadBean.getThreadAllocatedBytes(threadId);
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            AutoSize.autoConvertDensity(ability, snapshot, 360, true);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(ITERATIONS, config.getCacheStats().getHitCount() - hitCount);
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    public void applyDimensionDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+        DisplayAttributes first = new DisplayAttributes();
+        first.densityDpi = 480;
+        first.scalDensity = 3f;
+        first.xDpi = 440f;
+        DisplayAttributes second = new DisplayAttributes();
+        second.densityDpi = 320;
+        second.scalDensity = 2f;
+        second.xDpi = 300f;
+        long threadId = Thread.currentThread().getId();
+
+        //交替传入不同的 DisplayAttributes, 每次都直接计算转换系数, 不会生成新的转换系数表
+        float sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sum += AutoSizeUtils.applyDimension(i % (AutoSizeUtils.COMPLEX_UNIT_MM + 1), i, (i & 1) == 0 ? first : second);
+        }
+        threadBean.getThreadAllocatedBytes(threadId);
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sum += AutoSizeUtils.applyDimension(i % (AutoSizeUtils.COMPLEX_UNIT_MM + 1), i, (i & 1) == 0 ? first : second);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(sum > 0);
+        assertEquals(0, allocated);
+    }
+}
@@ -0,0 +1,157 @@
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.unit.UnitsManager;
+import me.jessyan.autosize.utils.AutoSizeMetrics;
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.aafwk.ability.Ability;
+import ohos.aafwk.ability.AbilityLifecycleCallbacks;
+import ohos.aafwk.ability.AbilityPackage;
+import ohos.aafwk.ability.ElementsCallback;
+import ohos.global.configuration.Configuration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AutoSizeConfigTest {
+
+    private static final class RecordingStrategy implements AutoAdaptStrategy {
+        final List<Ability> adapted = new ArrayList<>();
+
+        @Override
+        public void applyAdapt(Object target, Ability ability) {
+            adapted.add(ability);
+        }
+    }
+
+    private static void start(AbilityPackage application, Ability ability) {
+        for (AbilityLifecycleCallbacks callbacks : application.lifecycleCallbacks) {
+            callbacks.onAbilityStart(ability);
+        }
+    }
+
+    private static void stop(AbilityPackage application, Ability ability) {
+        for (AbilityLifecycleCallbacks callbacks : application.lifecycleCallbacks) {
+            callbacks.onAbilityStop(ability);
+        }
+    }
+
+    /**
+     * 桩代码中的 EventHandler 会立即执行任务, 所以防抖之后的回调会同步执行
+     */
+    private static void changeConfiguration(AbilityPackage application, float fontRatio) {
+        Configuration configuration = new Configuration();
+        configuration.fontRatio = fontRatio;
+        for (ElementsCallback callback : application.elementsCallbacks) {
+            callback.onConfigurationUpdated(configuration);
+        }
+    }
+
+    @Test
+    public void fontScaleDoesNotDriftAcrossConfigurationChanges() {
+        AbilityPackage application = TestEnvironment.init();
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(TestEnvironment.SCREEN_WIDTH)
+                .setScreenHeight(TestEnvironment.SCREEN_HEIGHT)
+                .setDesignWidthInDp(360)
+                .setBaseOnWidth(true)
+                .setExcludeFontScale(false)
+                .setPrivateFontScale(0);
+        try {
+            changeConfiguration(application, 1f);
+            start(application, new Ability());
+            assertEquals(4f, TestEnvironment.getDisplayAttributes().scalDensity, 0f);
+
+            //适配之后 DisplayAttributes 中的 scalDensity 已经是适配后的值, 多次配置变化不能使字体越来越大
+            for (int i = 0; i < 3; i++) {
+                changeConfiguration(application, 1f);
+                assertEquals(1f, config.getSnapshot().getFontScale(), 0f);
+                assertEquals(4f, TestEnvironment.getDisplayAttributes().scalDensity, 0f);
+            }
+
+            for (int i = 0; i < 3; i++) {
+                changeConfiguration(application, 1.25f);
+                assertEquals(1.25f, config.getSnapshot().getFontScale(), 0f);
+                assertEquals(5f, TestEnvironment.getDisplayAttributes().scalDensity, 0f);
+            }
+        } finally {
+            changeConfiguration(application, 1f);
+        }
+    }
+
+    @Test
+    public void registryKeepsTrackingWhileStopped() {
+        AbilityPackage application = TestEnvironment.init();
+        AutoSizeConfig config = AutoSizeConfig.getInstance();
+        RecordingStrategy strategy = new RecordingStrategy();
+        config.setAutoAdaptStrategy(strategy);
+        try {
+            Ability started = new Ability();
+            start(application, started);
+            assertTrue(strategy.adapted.contains(started));
+
+            config.stop();
+            assertTrue(config.isStop());
+            strategy.adapted.clear();
+            Ability opened = new Ability();
+            Ability destroyed = new Ability();
+            start(application, opened);
+            start(application, destroyed);
+            stop(application, destroyed);
+            //停止期间不进行适配
+            assertTrue(strategy.adapted.isEmpty());
+
+            config.restart();
+            assertFalse(config.isStop());
+            assertTrue(strategy.adapted.contains(started));
+            assertTrue(strategy.adapted.contains(opened));
+            assertFalse(strategy.adapted.contains(destroyed));
+        } finally {
+            config.setAutoAdaptStrategy(new DefaultAutoAdaptStrategy());
+            config.restart();
+        }
+    }
+
+    @Test
+    public void conversionTableFollowsAdaptationAndConfigurationChanges() {
+        AbilityPackage application = TestEnvironment.init();
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(TestEnvironment.SCREEN_WIDTH)
+                .setScreenHeight(TestEnvironment.SCREEN_HEIGHT)
+                .setDesignWidthInDp(360)
+                .setBaseOnWidth(true)
+                .setExcludeFontScale(false)
+                .setPrivateFontScale(0);
+        UnitsManager unitsManager = config.getUnitsManager();
+        try {
+            changeConfiguration(application, 1f);
+            Ability ability = new Ability();
+            start(application, ability);
+            //AutoSizeUtils 和 AutoSizeMetrics 使用的都是 UnitsManager 中的同一张表
+            assertEquals(4f, unitsManager.getConversionTable().getFactor(AutoSizeUtils.COMPLEX_UNIT_SP), 0f);
+            assertSame(unitsManager.getConversionTable(), AutoSizeMetrics.get(ability).getConversionTable());
+            assertEquals(40, AutoSizeUtils.sp2px(ability, 10));
+
+            //取消适配后恢复为初始的转换系数
+            config.stop();
+            assertEquals(3f, unitsManager.getConversionTable().getFactor(AutoSizeUtils.COMPLEX_UNIT_SP), 0f);
+            assertEquals(30, AutoSizeUtils.sp2px(ability, 10));
+
+            //停止适配期间不会重新适配, 但转换系数表需要使用新的字体缩放比例
+            changeConfiguration(application, 1.25f);
+            assertEquals(3.75f, unitsManager.getConversionTable().getFactor(AutoSizeUtils.COMPLEX_UNIT_SP), 0f);
+            assertSame(unitsManager.getConversionTable(), AutoSizeMetrics.get(ability).getConversionTable());
+
+            config.restart();
+            assertEquals(5f, unitsManager.getConversionTable().getFactor(AutoSizeUtils.COMPLEX_UNIT_SP), 0f);
+        } finally {
+            config.restart();
+            changeConfiguration(application, 1f);
+        }
+    }
+}
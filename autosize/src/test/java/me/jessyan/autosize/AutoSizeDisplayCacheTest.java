@@ -0,0 +1,130 @@
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.Ability;
+import ohos.agp.window.service.Display;
+import ohos.agp.window.service.DisplayAttributes;
+import ohos.agp.window.service.DisplayManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutoSizeDisplayCacheTest {
+    private final List<Ability> mAbilities = new ArrayList<>();
+    private AutoSizeConfig mConfig;
+
+    @Before
+    public void setUp() {
+        TestEnvironment.init();
+        mConfig = AutoSizeConfig.getInstance()
+                .setScreenWidth(TestEnvironment.SCREEN_WIDTH)
+                .setScreenHeight(TestEnvironment.SCREEN_HEIGHT)
+                .setUseDeviceSize(true)
+                .setExcludeFontScale(true);
+        AutoSize.clearCache();
+    }
+
+    @After
+    public void tearDown() {
+        for (Ability ability : mAbilities) {
+            DisplayManager.getInstance().setDisplay(ability, null);
+        }
+        AutoSize.clearCache();
+    }
+
+    private Ability abilityOn(TestDisplay display) {
+        Ability ability = new Ability();
+        DisplayManager.getInstance().setDisplay(ability, display);
+        mAbilities.add(ability);
+        return ability;
+    }
+
+    private void adapt(Ability ability) {
+        AutoSize.autoConvertDensity(ability, mConfig.getSnapshot(), 360, true);
+    }
+
+    @Test
+    public void eachDisplayUsesItsOwnWindowSize() {
+        TestDisplay external = new TestDisplay(1, 720, 1280);
+        Ability main = new Ability();
+        Ability secondary = abilityOn(external);
+
+        adapt(main);
+        adapt(secondary);
+        assertEquals(2f, external.mAttributes.scalDensity, 0f);
+        //副屏的适配参数不能写入 Application 所在的主 Display
+        assertEquals(4f, TestEnvironment.getDisplayAttributes().scalDensity, 0f);
+        assertEquals(1, AutoSize.displayStateCount());
+    }
+
+    @Test
+    public void adaptingAnotherDisplayKeepsLastApplied() {
+        TestDisplay external = new TestDisplay(1, 1080, 1920);
+        Ability secondary = abilityOn(external);
+        adapt(secondary);
+        assertEquals(3f, external.mAttributes.scalDensity, 0f);
+
+        adapt(new Ability());
+        //主 Display 上的适配不影响副屏的记录, 副屏上的 Ability 再次适配时不需要重新赋值
+        external.mAttributes.scalDensity = 1f;
+        adapt(secondary);
+        assertEquals(1f, external.mAttributes.scalDensity, 0f);
+    }
+
+    @Test
+    public void leastRecentlyUsedDisplayIsEvicted() {
+        List<TestDisplay> displays = new ArrayList<>();
+        for (int id = 1; id <= AutoSize.MAX_DISPLAY_CACHES + 1; id++) {
+            TestDisplay display = new TestDisplay(id, 360 * id, 640 * id);
+            displays.add(display);
+            adapt(abilityOn(display));
+            assertEquals(id, display.mAttributes.scalDensity, 0f);
+        }
+        assertEquals(AutoSize.MAX_DISPLAY_CACHES, AutoSize.displayStateCount());
+
+        //被淘汰的 Display 再次适配时重新计算
+        TestDisplay evicted = displays.get(0);
+        evicted.mAttributes.scalDensity = 0f;
+        adapt(abilityOn(evicted));
+        assertEquals(1f, evicted.mAttributes.scalDensity, 0f);
+        assertEquals(AutoSize.MAX_DISPLAY_CACHES, AutoSize.displayStateCount());
+    }
+
+    @Test
+    public void windowSizeFallsBackToConfiguredScreenSize() {
+        TestDisplay unknown = new TestDisplay(1, 0, 0);
+        adapt(abilityOn(unknown));
+        assertEquals(4f, unknown.mAttributes.scalDensity, 0f);
+    }
+
+    private static final class TestDisplay implements Display {
+        private final int mId;
+        private final DisplayAttributes mAttributes = new DisplayAttributes();
+        private final DisplayAttributes mRealAttributes = new DisplayAttributes();
+
+        TestDisplay(int id, int width, int height) {
+            mId = id;
+            mAttributes.width = width;
+            mAttributes.height = height;
+        }
+
+        @Override
+        public int getDisplayId() {
+            return mId;
+        }
+
+        @Override
+        public DisplayAttributes getAttributes() {
+            return mAttributes;
+        }
+
+        @Override
+        public DisplayAttributes getRealAttributes() {
+            return mRealAttributes;
+        }
+    }
+}
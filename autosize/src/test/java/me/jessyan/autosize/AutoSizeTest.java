@@ -0,0 +1,26 @@
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.Ability;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutoSizeTest {
+
+    @Test
+    public void adaptationUsesConfiguredScreenSize() {
+        TestEnvironment.init();
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(720)
+                .setScreenHeight(1280)
+                .setUseDeviceSize(true)
+                .setExcludeFontScale(true);
+        AutoSize.autoConvertDensity(new Ability(), config.getSnapshot(), 360, true);
+        //Display 的宽度为 1440, 使用者设置的 720 优先
+        assertEquals(2f, TestEnvironment.getDisplayAttributes().scalDensity, 0f);
+
+        config.setScreenWidth(1080);
+        AutoSize.autoConvertDensity(new Ability(), config.getSnapshot(), 360, true);
+        assertEquals(3f, TestEnvironment.getDisplayAttributes().scalDensity, 0f);
+    }
+}
@@ -0,0 +1,68 @@
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.external.ExternalAdaptInfo;
+import me.jessyan.autosize.internal.CustomAdapt;
+import me.jessyan.autosize.unit.UnitsManager;
+import ohos.aafwk.ability.Ability;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutoSizeWarmUpTest {
+
+    private static final class CustomAbility extends Ability implements CustomAdapt {
+        @Override
+        public boolean isBaseOnWidth() {
+            return false;
+        }
+
+        @Override
+        public float getSizeInDp() {
+            return 667;
+        }
+    }
+
+    @Test
+    public void warmUpOffMainThreadFillsCacheUsedByAdaptation() throws Exception {
+        TestEnvironment.init();
+        final AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(1440)
+                .setScreenHeight(3120)
+                .setDesignWidthInDp(360)
+                .setDesignHeightInDp(640)
+                .setBaseOnWidth(true)
+                .setExcludeFontScale(true);
+        final AutoSizeConfig.AdaptSnapshot snapshot = config.getSnapshot();
+        final UnitsManager unitsManager = config.getUnitsManager();
+        final ExternalAdaptInfo externalAdaptInfo = new ExternalAdaptInfo(true, 375);
+        final CustomAbility customAbility = new CustomAbility();
+        AutoSize.clearCache();
+        CacheStats initial = config.getCacheStats();
+
+        FutureTask<Integer> task = new FutureTask<>(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return AutoSize.warmUp(snapshot, unitsManager
+                        , Arrays.asList(externalAdaptInfo, new ExternalAdaptInfo(false)), new CustomAdapt[]{customAbility});
+            }
+        });
+        Thread thread = new Thread(task);
+        thread.start();
+        assertEquals(4, (int) task.get());
+        CacheStats warmed = config.getCacheStats();
+        assertEquals(4, warmed.getMissCount() - initial.getMissCount());
+
+        //真正的适配全部命中预热的缓存
+        AutoSize.autoConvertDensityOfGlobal(new Ability(), snapshot);
+        AutoSize.autoConvertDensityOfExternalAdaptInfo(new Ability(), snapshot, externalAdaptInfo);
+        AutoSize.autoConvertDensityOfCustomAdapt(customAbility, snapshot, customAbility);
+        CacheStats adapted = config.getCacheStats();
+        assertEquals(warmed.getMissCount(), adapted.getMissCount());
+        assertEquals(3, adapted.getHitCount() - warmed.getHitCount());
+        assertEquals(4, AutoSize.cacheSize());
+    }
+}
@@ -0,0 +1,77 @@
+package me.jessyan.autosize;
+
+import ohos.eventhandler.EventHandler;
+import ohos.eventhandler.EventRunner;
+import ohos.global.configuration.Configuration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ConfigurationChangeHandlerTest {
+
+    /**
+     * 只记录任务, 由测试手动执行, 模拟主线程的消息队列
+     */
+    private static final class ManualEventHandler extends EventHandler {
+        final List<Runnable> tasks = new ArrayList<>();
+        long lastDelay;
+
+        ManualEventHandler() {
+            super(EventRunner.getMainEventRunner());
+        }
+
+        @Override
+        public void postTask(Runnable task, long delayTime) {
+            tasks.add(task);
+            lastDelay = delayTime;
+        }
+
+        @Override
+        public void removeTask(Runnable task) {
+            tasks.remove(task);
+        }
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : pending) {
+                task.run();
+            }
+        }
+    }
+
+    @Test
+    public void burstOfChangesIsDispatchedOnceWithLatestConfiguration() {
+        ManualEventHandler handler = new ManualEventHandler();
+        final List<Configuration> dispatched = new ArrayList<>();
+        ConfigurationChangeHandler changeHandler = new ConfigurationChangeHandler(handler
+                , new ConfigurationChangeHandler.OnConfigurationChangedListener() {
+            @Override
+            public void onConfigurationChanged(Configuration configuration) {
+                dispatched.add(configuration);
+            }
+        });
+
+        Configuration last = null;
+        for (int i = 0; i < 30; i++) {
+            last = new Configuration();
+            last.direction = i % 2 == 0 ? Configuration.DIRECTION_VERTICAL : Configuration.DIRECTION_HORIZONTAL;
+            changeHandler.onConfigurationUpdated(last);
+        }
+        assertEquals(1, handler.tasks.size());
+        assertEquals(ConfigurationChangeHandler.DEBOUNCE_MILLIS, handler.lastDelay);
+
+        handler.runAll();
+        assertEquals(1, dispatched.size());
+        assertSame(last, dispatched.get(0));
+
+        //处理完之后的下一次变化重新计时
+        changeHandler.onConfigurationUpdated(new Configuration());
+        handler.runAll();
+        assertEquals(2, dispatched.size());
+    }
+}
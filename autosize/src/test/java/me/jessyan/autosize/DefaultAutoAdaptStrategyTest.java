@@ -0,0 +1,63 @@
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.external.ExternalAdaptInfo;
+import me.jessyan.autosize.external.ExternalAdaptManager;
+import me.jessyan.autosize.internal.CancelAdapt;
+import me.jessyan.autosize.internal.CustomAdapt;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DefaultAutoAdaptStrategyTest {
+
+    static class GlobalTarget {
+    }
+
+    static class CancelTarget implements CancelAdapt {
+    }
+
+    static class CustomTarget implements CustomAdapt {
+        @Override
+        public boolean isBaseOnWidth() {
+            return true;
+        }
+
+        @Override
+        public float getSizeInDp() {
+            return 0;
+        }
+    }
+
+    static class ThirdPartyTarget {
+    }
+
+    @Test
+    public void resolvesPlanOncePerClass() {
+        DefaultAutoAdaptStrategy strategy = new DefaultAutoAdaptStrategy();
+
+        assertSame(AdaptPlan.GLOBAL, strategy.getAdaptPlan(GlobalTarget.class));
+        assertSame(AdaptPlan.CANCEL, strategy.getAdaptPlan(CancelTarget.class));
+        assertSame(AdaptPlan.CUSTOM, strategy.getAdaptPlan(CustomTarget.class));
+        assertSame(strategy.getAdaptPlan(GlobalTarget.class), strategy.getAdaptPlan(GlobalTarget.class));
+    }
+
+    @Test
+    public void externalAdaptManagerChangesInvalidatePlans() {
+        DefaultAutoAdaptStrategy strategy = new DefaultAutoAdaptStrategy();
+        ExternalAdaptManager manager = AutoSizeConfig.getInstance().getExternalAdaptManager();
+        assertEquals(AdaptType.GLOBAL, strategy.getAdaptPlan(ThirdPartyTarget.class).type);
+
+        ExternalAdaptInfo info = new ExternalAdaptInfo(true, 480);
+        manager.addExternalAdaptInfoOfAbility(ThirdPartyTarget.class, info);
+        AdaptPlan plan = strategy.getAdaptPlan(ThirdPartyTarget.class);
+        assertEquals(AdaptType.EXTERNAL, plan.type);
+        assertSame(info, plan.externalAdaptInfo);
+
+        manager.addCancelAdaptOfAbility(ThirdPartyTarget.class);
+        assertSame(AdaptPlan.CANCEL, strategy.getAdaptPlan(ThirdPartyTarget.class));
+
+        manager.setRun(false);
+        assertSame(AdaptPlan.GLOBAL, strategy.getAdaptPlan(ThirdPartyTarget.class));
+    }
+}
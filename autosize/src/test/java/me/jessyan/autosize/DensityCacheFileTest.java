@@ -0,0 +1,119 @@
+package me.jessyan.autosize;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DensityCacheFileTest {
+    private static final long FINGERPRINT = DensityCacheFile.fingerprint(1080, 2340, 3f, 1f, 0);
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private static DensityCache filledCache(int count) {
+        DensityCalculator calculator = new DensityCalculator();
+        for (int i = 0; i < count; i++) {
+            calculator.calculate(300 + i, 0, 1080, 2340, 1f, i % 2 == 0, true);
+        }
+        return calculator.getCache();
+    }
+
+    @Test
+    public void roundTripRestoresEveryEntry() throws Exception {
+        File file = new File(temp.getRoot(), "density.cache");
+        DensityCache source = filledCache(50);
+        assertEquals(50, new DensityCacheFile(file, FINGERPRINT).save(source));
+
+        DensityCache restored = new DensityCache();
+        assertEquals(50, new DensityCacheFile(file, FINGERPRINT).load(restored));
+        assertEquals(50, restored.size());
+        for (int i = 0; i < 50; i++) {
+            boolean isBaseOnWidth = i % 2 == 0;
+            int flags = (isBaseOnWidth ? DensityCache.FLAG_BASE_ON_WIDTH : 0) | DensityCache.FLAG_USE_DEVICE_SIZE;
+            DisplayMetricsInfo expected = DensityCalculator.compute(300 + i, 0, 1080, 2340, 1f, isBaseOnWidth);
+            DisplayMetricsInfo actual = restored.get(300 + i, 300 + i, 1080, 2340, 1f, flags);
+            assertNotNull(actual);
+            assertEquals(Float.floatToIntBits(expected.getDensity()), Float.floatToIntBits(actual.getDensity()));
+            assertEquals(expected.getDensityDpi(), actual.getDensityDpi());
+            assertEquals(Float.floatToIntBits(expected.getScaledDensity()), Float.floatToIntBits(actual.getScaledDensity()));
+            assertEquals(Float.floatToIntBits(expected.getXdpi()), Float.floatToIntBits(actual.getXdpi()));
+            assertEquals(expected.getScreenWidthDp(), actual.getScreenWidthDp());
+            assertEquals(expected.getScreenHeightDp(), actual.getScreenHeightDp());
+        }
+    }
+
+    @Test
+    public void missingFileLoadsNothing() {
+        DensityCache cache = new DensityCache();
+        assertEquals(0, new DensityCacheFile(new File(temp.getRoot(), "missing.cache"), FINGERPRINT).load(cache));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void fingerprintChangeInvalidatesFile() throws Exception {
+        File file = new File(temp.getRoot(), "density.cache");
+        new DensityCacheFile(file, FINGERPRINT).save(filledCache(10));
+
+        long fontScaleChanged = DensityCacheFile.fingerprint(1080, 2340, 3f, 1.15f, 0);
+        assertNotEquals(FINGERPRINT, fontScaleChanged);
+        assertNotEquals(FINGERPRINT, DensityCacheFile.fingerprint(2340, 1080, 3f, 1f, 0));
+        assertNotEquals(FINGERPRINT, DensityCacheFile.fingerprint(1080, 2340, 3f, 1f, 3));
+
+        DensityCache cache = new DensityCache();
+        assertEquals(0, new DensityCacheFile(file, fontScaleChanged).load(cache));
+        assertEquals(0, cache.size());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void corruptFileFallsBackToEmptyCacheAndIsDeleted() throws Exception {
+        File file = new File(temp.getRoot(), "density.cache");
+        new DensityCacheFile(file, FINGERPRINT).save(filledCache(10));
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(40);
+            int b = raf.read();
+            raf.seek(40);
+            raf.write(b ^ 0xff);
+        } finally {
+            raf.close();
+        }
+
+        DensityCache cache = new DensityCache();
+        assertEquals(0, new DensityCacheFile(file, FINGERPRINT).load(cache));
+        assertEquals(0, cache.size());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void truncatedFileFallsBackToEmptyCache() throws Exception {
+        File file = new File(temp.getRoot(), "density.cache");
+        new DensityCacheFile(file, FINGERPRINT).save(filledCache(10));
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() - 13);
+        } finally {
+            raf.close();
+        }
+
+        DensityCache cache = new DensityCache();
+        assertEquals(0, new DensityCacheFile(file, FINGERPRINT).load(cache));
+        assertFalse(file.exists());
+
+        //损坏的文件被删除后可以重新保存
+        assertEquals(10, new DensityCacheFile(file, FINGERPRINT).save(filledCache(10)));
+        assertTrue(file.isFile());
+        assertEquals(10, new DensityCacheFile(file, FINGERPRINT).load(cache));
+        assertNull(cache.get(1, 1, 1, 1, 1f, 0));
+    }
+}
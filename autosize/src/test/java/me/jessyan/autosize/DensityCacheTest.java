@@ -0,0 +1,231 @@
+package me.jessyan.autosize;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DensityCacheTest {
+
+    /**
+     * 旧版本 AutoSize 使用的 key, 用来证明下面的参数组合在旧版本中确实会发生碰撞
+     */
+    private static int legacyKey(float sizeInDp, float subunitsDesignSize, int screenSize, float initScaledDensity) {
+        return Math.round((sizeInDp + subunitsDesignSize + screenSize) * initScaledDensity);
+    }
+
+    @Test
+    public void distinguishesTuplesThatCollidedWithLegacyKey() {
+        assertEquals(legacyKey(360, 360, 1080, 3f), legacyKey(361, 359, 1080, 3f));
+        assertEquals(legacyKey(360, 360, 1080, 3f), legacyKey(359, 360, 1081, 3f));
+
+        DensityCache cache = new DensityCache();
+        DisplayMetricsInfo first = new DisplayMetricsInfo(3f, 480, 3f, 3f, 360, 640);
+        cache.put(360, 360, 1080, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH, first);
+
+        assertNull(cache.get(361, 359, 1080, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH));
+        assertNull(cache.get(359, 360, 1081, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH));
+        assertSame(first, cache.get(360, 360, 1080, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH));
+    }
+
+    @Test
+    public void keyCoversEveryParameter() {
+        DensityCache cache = new DensityCache();
+        int flags = DensityCache.FLAG_BASE_ON_WIDTH | DensityCache.FLAG_USE_DEVICE_SIZE;
+        DisplayMetricsInfo info = new DisplayMetricsInfo(3f, 480, 3f, 3f, 360, 640);
+        cache.put(360, 1080, 1080, 1920, 1f, flags, info);
+
+        assertSame(info, cache.get(360, 1080, 1080, 1920, 1f, flags));
+        assertNull(cache.get(360, 1080, 1080, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH));
+        assertNull(cache.get(360, 1080, 1080, 1920, 1f, DensityCache.FLAG_USE_DEVICE_SIZE));
+        assertNull(cache.get(360, 1080, 1080, 1920, 1.15f, flags));
+        assertNull(cache.get(360, 1080, 1080, 1794, 1f, flags));
+        assertNull(cache.get(360, 1080, 720, 1920, 1f, flags));
+        assertNull(cache.get(360, 360, 1080, 1920, 1f, flags));
+        assertNull(cache.get(375, 1080, 1080, 1920, 1f, flags));
+    }
+
+    @Test
+    public void returnsExactlyTheComputedValues() {
+        DensityCache cache = new DensityCache();
+        float sizeInDp = 375;
+        int screenWidth = 1080;
+        int screenHeight = 2340;
+        float fontScale = 1.1f;
+        float density = screenWidth * 1.0f / sizeInDp;
+        DisplayMetricsInfo computed = new DisplayMetricsInfo(density, (int) (density * 160), density * fontScale
+                , screenWidth * 1.0f / sizeInDp, (int) (screenWidth / density), (int) (screenHeight / density));
+        cache.put(sizeInDp, sizeInDp, screenWidth, screenHeight, fontScale, DensityCache.FLAG_BASE_ON_WIDTH, computed);
+
+        DisplayMetricsInfo cached = cache.get(sizeInDp, sizeInDp, screenWidth, screenHeight, fontScale, DensityCache.FLAG_BASE_ON_WIDTH);
+        assertEquals(Float.floatToIntBits(computed.getDensity()), Float.floatToIntBits(cached.getDensity()));
+        assertEquals(computed.getDensityDpi(), cached.getDensityDpi());
+        assertEquals(Float.floatToIntBits(computed.getScaledDensity()), Float.floatToIntBits(cached.getScaledDensity()));
+        assertEquals(Float.floatToIntBits(computed.getXdpi()), Float.floatToIntBits(cached.getXdpi()));
+        assertEquals(computed.getScreenWidthDp(), cached.getScreenWidthDp());
+        assertEquals(computed.getScreenHeightDp(), cached.getScreenHeightDp());
+    }
+
+    @Test
+    public void growsWithoutLosingEntries() {
+        DensityCache cache = new DensityCache(2, 500);
+        DisplayMetricsInfo[] infos = new DisplayMetricsInfo[500];
+        for (int i = 0; i < infos.length; i++) {
+            infos[i] = new DisplayMetricsInfo(i, i, i, i);
+            cache.put(300 + i, 300 + i, 1080, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH, infos[i]);
+        }
+        assertEquals(infos.length, cache.size());
+        for (int i = 0; i < infos.length; i++) {
+            assertSame(infos[i], cache.get(300 + i, 300 + i, 1080, 1920, 1f, DensityCache.FLAG_BASE_ON_WIDTH));
+        }
+    }
+
+    @Test
+    public void putReplacesExistingKey() {
+        DensityCache cache = new DensityCache();
+        DisplayMetricsInfo first = new DisplayMetricsInfo(1f, 160, 1f, 1f);
+        DisplayMetricsInfo second = new DisplayMetricsInfo(2f, 320, 2f, 2f);
+        cache.put(360, 360, 1080, 1920, 1f, 0, first);
+        cache.put(360, 360, 1080, 1920, 1f, 0, second);
+
+        assertEquals(1, cache.size());
+        assertNotSame(first, cache.get(360, 360, 1080, 1920, 1f, 0));
+        assertSame(second, cache.get(360, 360, 1080, 1920, 1f, 0));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(360, 360, 1080, 1920, 1f, 0));
+    }
+
+    @Test
+    public void putIfAbsentKeepsFirstValue() {
+        DensityCache cache = new DensityCache();
+        DisplayMetricsInfo first = new DisplayMetricsInfo(1f, 160, 1f, 1f);
+        DisplayMetricsInfo second = new DisplayMetricsInfo(2f, 320, 2f, 2f);
+
+        assertSame(first, cache.putIfAbsent(360, 360, 1080, 1920, 1f, 0, first));
+        assertSame(first, cache.putIfAbsent(360, 360, 1080, 1920, 1f, 0, second));
+        assertSame(first, cache.get(360, 360, 1080, 1920, 1f, 0));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void readersNeverSeeMismatchedValuesWhileWriterGrowsTable() throws Exception {
+        final int count = 2000;
+        final DensityCache cache = new DensityCache(2, count);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (done.getCount() > 0) {
+                            for (int i = 0; i < count; i++) {
+                                DisplayMetricsInfo info = cache.get(300 + i, 300 + i, 1080, 1920, 1f, 0);
+                                if (info != null && info.getDensityDpi() != i) {
+                                    throw new AssertionError("expected " + i + " but was " + info.getDensityDpi());
+                                }
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 0; i < count; i++) {
+            cache.put(300 + i, 300 + i, 1080, 1920, 1f, 0, new DisplayMetricsInfo(i, i, i, i));
+        }
+        done.countDown();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(count, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntryWhenFull() {
+        DensityCache cache = new DensityCache(2, 3);
+        for (int i = 0; i < 3; i++) {
+            cache.put(300 + i, 0, 1080, 1920, 1f, 0, new DisplayMetricsInfo(i, i, i, i));
+        }
+        //访问 300 后, 最久未使用的变为 301
+        assertNotNull(cache.get(300, 0, 1080, 1920, 1f, 0));
+        cache.put(303, 0, 1080, 1920, 1f, 0, new DisplayMetricsInfo(3, 3, 3, 3));
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(301, 0, 1080, 1920, 1f, 0));
+        assertNotNull(cache.get(300, 0, 1080, 1920, 1f, 0));
+        assertNotNull(cache.get(302, 0, 1080, 1920, 1f, 0));
+        assertNotNull(cache.get(303, 0, 1080, 1920, 1f, 0));
+
+        CacheStats stats = cache.stats();
+        assertEquals(4, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(3, stats.getSize());
+        assertEquals(3, stats.getMaxSize());
+    }
+
+    @Test
+    public void continuouslyResizedWindowStaysBounded() {
+        DensityCache cache = new DensityCache(2, 64);
+        for (int width = 320; width < 3840; width++) {
+            if (cache.get(360, 0, width, 1920, 1f, 0) == null) {
+                cache.putIfAbsent(360, 0, width, 1920, 1f, 0, new DisplayMetricsInfo(width, width, width, width));
+            }
+        }
+        assertEquals(64, cache.size());
+        assertEquals(3840 - 320 - 64, cache.stats().getEvictionCount());
+        //最近使用的窗口尺寸都还在缓存中
+        for (int width = 3840 - 64; width < 3840; width++) {
+            assertEquals(width, cache.get(360, 0, width, 1920, 1f, 0).getDensityDpi());
+        }
+    }
+
+    @Test
+    public void shrinkingMaxSizeEvictsImmediately() {
+        DensityCache cache = new DensityCache(2, 10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(300 + i, 0, 1080, 1920, 1f, 0, new DisplayMetricsInfo(i, i, i, i));
+        }
+        cache.get(300, 0, 1080, 1920, 1f, 0);
+        cache.setMaxSize(4);
+
+        assertEquals(4, cache.size());
+        assertEquals(6, cache.stats().getEvictionCount());
+        assertNotNull(cache.get(300, 0, 1080, 1920, 1f, 0));
+        for (int i = 7; i < 10; i++) {
+            assertNotNull(cache.get(300 + i, 0, 1080, 1920, 1f, 0));
+        }
+    }
+
+    @Test
+    public void removeFontScaleKeepsOtherEntries() {
+        DensityCache cache = new DensityCache();
+        DisplayMetricsInfo normal = new DisplayMetricsInfo(1f, 160, 1f, 1f);
+        DisplayMetricsInfo large = new DisplayMetricsInfo(1f, 160, 1.3f, 1f);
+        cache.put(360, 360, 1080, 1920, 1f, 0, normal);
+        cache.put(360, 360, 1920, 1080, 1f, 0, normal);
+        cache.put(360, 360, 1080, 1920, 1.3f, 0, large);
+
+        assertEquals(2, cache.removeFontScale(1f));
+        assertEquals(1, cache.size());
+        assertNull(cache.get(360, 360, 1080, 1920, 1f, 0));
+        assertNull(cache.get(360, 360, 1920, 1080, 1f, 0));
+        assertSame(large, cache.get(360, 360, 1080, 1920, 1.3f, 0));
+        assertEquals(0, cache.stats().getEvictionCount());
+        assertEquals(0, cache.removeFontScale(1f));
+    }
+}
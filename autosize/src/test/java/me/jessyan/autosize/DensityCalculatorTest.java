@@ -0,0 +1,143 @@
+package me.jessyan.autosize;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DensityCalculatorTest {
+    private static final long SEED = 0x5EED_A5L;
+    private static final int SAMPLES = 200_000;
+
+    /**
+     * 随机生成的一组参数, 范围覆盖手表到电视的屏幕尺寸以及常见的设计图尺寸
+     */
+    private static final class Params {
+        final float sizeInDp;
+        final float subunitsDesignSize;
+        final int screenWidth;
+        final int screenHeight;
+        final float fontScale;
+        final boolean isBaseOnWidth;
+
+        Params(Random random) {
+            sizeInDp = 100 + random.nextInt(2000) + (random.nextBoolean() ? random.nextFloat() : 0);
+            subunitsDesignSize = random.nextInt(4) == 0 ? 0 : 100 + random.nextFloat() * 3000;
+            screenWidth = 120 + random.nextInt(4000);
+            screenHeight = 120 + random.nextInt(4000);
+            fontScale = 0.5f + random.nextFloat() * 2.5f;
+            isBaseOnWidth = random.nextBoolean();
+        }
+    }
+
+    /**
+     * 抽取 {@link DensityCalculator} 之前 {@link AutoSize} 中的计算方式, 用作对照
+     */
+    private static DisplayMetricsInfo reference(Params p) {
+        float subunitsDesignSize = p.subunitsDesignSize > 0 ? p.subunitsDesignSize : p.sizeInDp;
+        float targetDensity;
+        float targetXdpi;
+        if (p.isBaseOnWidth) {
+            targetDensity = p.screenWidth * 1.0f / p.sizeInDp;
+            targetXdpi = p.screenWidth * 1.0f / subunitsDesignSize;
+        } else {
+            targetDensity = p.screenHeight * 1.0f / p.sizeInDp;
+            targetXdpi = p.screenHeight * 1.0f / subunitsDesignSize;
+        }
+        float targetScaledDensity = targetDensity * p.fontScale;
+        int targetDensityDpi = (int) (targetDensity * 160);
+        int targetScreenWidthDp = (int) (p.screenWidth / targetDensity);
+        int targetScreenHeightDp = (int) (p.screenHeight / targetDensity);
+        return new DisplayMetricsInfo(targetDensity, targetDensityDpi, targetScaledDensity, targetXdpi, targetScreenWidthDp, targetScreenHeightDp);
+    }
+
+    private static void assertBitsEqual(DisplayMetricsInfo expected, DisplayMetricsInfo actual) {
+        assertEquals(Float.floatToIntBits(expected.getDensity()), Float.floatToIntBits(actual.getDensity()));
+        assertEquals(expected.getDensityDpi(), actual.getDensityDpi());
+        assertEquals(Float.floatToIntBits(expected.getScaledDensity()), Float.floatToIntBits(actual.getScaledDensity()));
+        assertEquals(Float.floatToIntBits(expected.getXdpi()), Float.floatToIntBits(actual.getXdpi()));
+        assertEquals(expected.getScreenWidthDp(), actual.getScreenWidthDp());
+        assertEquals(expected.getScreenHeightDp(), actual.getScreenHeightDp());
+    }
+
+    @Test
+    public void computeIsBitIdenticalToReference() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            Params p = new Params(random);
+            assertBitsEqual(reference(p), DensityCalculator.compute(p.sizeInDp, p.subunitsDesignSize, p.screenWidth
+                    , p.screenHeight, p.fontScale, p.isBaseOnWidth));
+        }
+    }
+
+    @Test
+    public void cachedResultEqualsUncachedResult() {
+        Random random = new Random(SEED + 1);
+        DensityCalculator calculator = new DensityCalculator();
+        for (int i = 0; i < SAMPLES / 10; i++) {
+            Params p = new Params(random);
+            boolean isUseDeviceSize = random.nextBoolean();
+            DisplayMetricsInfo first = calculator.calculate(p.sizeInDp, p.subunitsDesignSize, p.screenWidth
+                    , p.screenHeight, p.fontScale, p.isBaseOnWidth, isUseDeviceSize);
+            assertBitsEqual(reference(p), first);
+            assertSame(first, calculator.calculate(p.sizeInDp, p.subunitsDesignSize, p.screenWidth
+                    , p.screenHeight, p.fontScale, p.isBaseOnWidth, isUseDeviceSize));
+        }
+    }
+
+    @Test
+    public void resultSatisfiesAdaptationInvariants() {
+        Random random = new Random(SEED + 2);
+        for (int i = 0; i < SAMPLES; i++) {
+            Params p = new Params(random);
+            DisplayMetricsInfo info = DensityCalculator.compute(p.sizeInDp, p.subunitsDesignSize, p.screenWidth
+                    , p.screenHeight, p.fontScale, p.isBaseOnWidth);
+            int screenSize = p.isBaseOnWidth ? p.screenWidth : p.screenHeight;
+            int screenSizeDp = p.isBaseOnWidth ? info.getScreenWidthDp() : info.getScreenHeightDp();
+
+            //设计图尺寸乘以 density 应该还原出屏幕尺寸
+            assertEquals(screenSize, info.getDensity() * p.sizeInDp, screenSize * 1e-6f);
+            //屏幕尺寸换算成 dp 后应该 (向下取整后) 等于设计图尺寸
+            assertTrue(Math.abs(screenSizeDp - p.sizeInDp) <= 1);
+            assertEquals(info.getDensity() * p.fontScale, info.getScaledDensity(), 0f);
+            assertEquals((int) (info.getDensity() * 160), info.getDensityDpi());
+            assertTrue(info.getXdpi() > 0);
+            if (p.subunitsDesignSize <= 0) {
+                assertEquals(info.getDensity(), info.getXdpi(), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void densityIsMonotonicInScreenSize() {
+        Random random = new Random(SEED + 3);
+        for (int i = 0; i < SAMPLES; i++) {
+            Params p = new Params(random);
+            int grow = 1 + random.nextInt(500);
+            DisplayMetricsInfo smaller = DensityCalculator.compute(p.sizeInDp, p.subunitsDesignSize, p.screenWidth
+                    , p.screenHeight, p.fontScale, p.isBaseOnWidth);
+            DisplayMetricsInfo larger = DensityCalculator.compute(p.sizeInDp, p.subunitsDesignSize, p.screenWidth + grow
+                    , p.screenHeight + grow, p.fontScale, p.isBaseOnWidth);
+            assertTrue(larger.getDensity() > smaller.getDensity());
+            assertTrue(larger.getDensityDpi() >= smaller.getDensityDpi());
+        }
+    }
+
+    @Test
+    public void cacheLookupReportsItsOwnHitOrMiss() {
+        DensityCalculator calculator = new DensityCalculator();
+        assertNull(calculator.getCached(360, 0, 1080, 2340, 1f, true, true));
+        DisplayMetricsInfo info = calculator.computeAndCache(360, 0, 1080, 2340, 1f, true, true);
+        //其他线程的查询只影响统计, 不影响这次查询的返回值
+        calculator.calculate(411, 0, 1080, 2340, 1f, true, true);
+        assertSame(info, calculator.getCached(360, 0, 1080, 2340, 1f, true, true));
+
+        CacheStats stats = calculator.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+}
@@ -0,0 +1,39 @@
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.AbilityPackage;
+import ohos.agp.window.service.DisplayAttributes;
+import ohos.agp.window.service.DisplayManager;
+
+/**
+ * 需要完整适配流程的测试共用的初始化, {@link AutoSizeConfig#init(AbilityPackage)} 在同一个 JVM 中只能调用一次
+ * 默认 Display 的初始参数为 1440 * 3120, density 3.0, 系统字体缩放比例 1.0
+ */
+final class TestEnvironment {
+    static final int SCREEN_WIDTH = 1440;
+    static final int SCREEN_HEIGHT = 3120;
+    static final float DENSITY = 3f;
+
+    private static AbilityPackage sApplication;
+
+    private TestEnvironment() {
+    }
+
+    static synchronized AbilityPackage init() {
+        if (sApplication == null) {
+            DisplayAttributes attributes = getDisplayAttributes();
+            attributes.width = SCREEN_WIDTH;
+            attributes.height = SCREEN_HEIGHT;
+            attributes.densityPixels = DENSITY;
+            attributes.densityDpi = (int) (DENSITY * 160);
+            attributes.scalDensity = DENSITY;
+            attributes.xDpi = DENSITY * 160;
+            sApplication = new AbilityPackage();
+            AutoSizeConfig.getInstance().init(sApplication);
+        }
+        return sApplication;
+    }
+
+    static DisplayAttributes getDisplayAttributes() {
+        return DisplayManager.getInstance().getDefaultDisplay(null).get().getAttributes();
+    }
+}
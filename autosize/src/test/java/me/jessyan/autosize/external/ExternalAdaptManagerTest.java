@@ -0,0 +1,76 @@
+package me.jessyan.autosize.external;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExternalAdaptManagerTest {
+
+    static class FirstAbility {
+    }
+
+    static class SecondAbility {
+    }
+
+    static class ThirdAbility {
+    }
+
+    @Test
+    public void bulkRegistration() {
+        ExternalAdaptManager manager = new ExternalAdaptManager();
+        assertFalse(manager.isRun());
+
+        manager.addCancelAdaptOfAbilities(FirstAbility.class, SecondAbility.class);
+        assertTrue(manager.isRun());
+        assertTrue(manager.isCancelAdapt(FirstAbility.class));
+        assertTrue(manager.isCancelAdapt(SecondAbility.class));
+        assertFalse(manager.isCancelAdapt(ThirdAbility.class));
+
+        ExternalAdaptInfo first = new ExternalAdaptInfo(true, 360);
+        ExternalAdaptInfo third = new ExternalAdaptInfo(false, 640);
+        Map<Class<?>, ExternalAdaptInfo> infos = new HashMap<>();
+        infos.put(FirstAbility.class, first);
+        infos.put(ThirdAbility.class, third);
+        manager.addExternalAdaptInfosOfAbility(infos);
+        assertSame(first, manager.getExternalAdaptInfoOfActivity(FirstAbility.class));
+        assertSame(third, manager.getExternalAdaptInfoOfActivity(ThirdAbility.class));
+        assertNull(manager.getExternalAdaptInfoOfActivity(SecondAbility.class));
+    }
+
+    @Test
+    public void anonymousClassesDoNotShareEntries() {
+        Object first = new Object() {
+        };
+        Object second = new Object() {
+        };
+        //匿名类的 getCanonicalName() 都是 null, 以类名作为 key 时会互相冲突
+        assertNull(first.getClass().getCanonicalName());
+        assertNull(second.getClass().getCanonicalName());
+
+        ExternalAdaptManager manager = new ExternalAdaptManager().addCancelAdaptOfAbility(first.getClass());
+        assertTrue(manager.isCancelAdapt(first.getClass()));
+        assertFalse(manager.isCancelAdapt(second.getClass()));
+    }
+
+    @Test
+    public void everyChangeBumpsVersion() {
+        ExternalAdaptManager manager = new ExternalAdaptManager();
+        int version = manager.getVersion();
+        manager.addCancelAdaptOfAbility(FirstAbility.class);
+        assertTrue(manager.getVersion() > version);
+
+        version = manager.getVersion();
+        manager.addExternalAdaptInfoOfAbility(SecondAbility.class, new ExternalAdaptInfo(true));
+        assertTrue(manager.getVersion() > version);
+
+        version = manager.getVersion();
+        manager.setRun(false);
+        assertTrue(manager.getVersion() > version);
+    }
+}
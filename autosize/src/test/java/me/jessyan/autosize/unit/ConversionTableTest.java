@@ -0,0 +1,64 @@
+package me.jessyan.autosize.unit;
+
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.agp.window.service.DisplayAttributes;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConversionTableTest {
+
+    private static DisplayAttributes attributes() {
+        DisplayAttributes attributes = new DisplayAttributes();
+        attributes.densityDpi = 480;
+        attributes.scalDensity = 3.3f;
+        attributes.xDpi = 441.5f;
+        return attributes;
+    }
+
+    @Test
+    public void factorsCoverEveryUnit() {
+        ConversionTable table = ConversionTable.of(attributes());
+        assertEquals(1f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_PX), 0);
+        assertEquals(480f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_DIP), 0);
+        assertEquals(3.3f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_SP), 0);
+        assertEquals(441.5f / 72f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_PT), 0);
+        assertEquals(441.5f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_IN), 0);
+        assertEquals(441.5f / 25.4f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_MM), 0);
+        assertEquals(0f, table.getFactor(-1), 0);
+        assertEquals(0f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_MM + 1), 0);
+    }
+
+    @Test
+    public void subunitFactorsMatchUnitFactors() {
+        ConversionTable table = ConversionTable.of(attributes());
+        assertEquals(441.5f, table.getFactor(Subunits.NONE), 0);
+        assertEquals(table.getFactor(AutoSizeUtils.COMPLEX_UNIT_PT), table.getFactor(Subunits.PT), 0);
+        assertEquals(table.getFactor(AutoSizeUtils.COMPLEX_UNIT_IN), table.getFactor(Subunits.IN), 0);
+        assertEquals(table.getFactor(AutoSizeUtils.COMPLEX_UNIT_MM), table.getFactor(Subunits.MM), 0);
+        for (Subunits subunits : Subunits.values()) {
+            assertEquals(441.5f, table.getFactor(subunits) * subunits.getUnitsPerInch(), 1e-3f);
+        }
+    }
+
+    @Test
+    public void tableIsASnapshotOfTheAttributes() {
+        DisplayAttributes attributes = attributes();
+        ConversionTable table = ConversionTable.of(attributes);
+        assertTrue(table.matches(attributes));
+        attributes.xDpi = 320f;
+        assertFalse(table.matches(attributes));
+        assertEquals(441.5f, table.getFactor(AutoSizeUtils.COMPLEX_UNIT_IN), 0);
+        assertEquals(883, table.toPx(AutoSizeUtils.COMPLEX_UNIT_MM, 50.8f));
+    }
+
+    @Test
+    public void applyDimensionFollowsAttributes() {
+        DisplayAttributes attributes = attributes();
+        assertEquals(4800f, AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_DIP, 10, attributes), 0);
+        attributes.densityDpi = 320;
+        assertEquals(3200f, AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_DIP, 10, attributes), 0);
+    }
+}
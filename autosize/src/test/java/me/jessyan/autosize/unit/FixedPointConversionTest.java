@@ -0,0 +1,88 @@
+package me.jessyan.autosize.unit;
+
+import me.jessyan.autosize.DensityCalculator;
+import me.jessyan.autosize.DisplayMetricsInfo;
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FixedPointConversionTest {
+    private static final int[] SCREEN_WIDTHS = {480, 720, 1080, 1440, 2160};
+    private static final float[] FONT_SCALES = {0.85f, 1f, 1.3f};
+    private static final int[] UNITS = {AutoSizeUtils.COMPLEX_UNIT_DIP, AutoSizeUtils.COMPLEX_UNIT_SP
+            , AutoSizeUtils.COMPLEX_UNIT_PT, AutoSizeUtils.COMPLEX_UNIT_IN, AutoSizeUtils.COMPLEX_UNIT_MM};
+    private static final int MAX_VALUE = 10000;
+    /**
+     * Q16.16 定点数四舍五入后的误差上限
+     */
+    private static final double FACTOR_ERROR = 1.0 / (1 << (ConversionTable.FIXED_SHIFT + 1));
+
+    /**
+     * 与 AutoSize#setDensity 相同的方式生成转换系数表, 副单位使用 pt
+     */
+    private static ConversionTable adaptedTable(float designWidthInDp, int screenWidth, float fontScale) {
+        DisplayMetricsInfo info = DensityCalculator.compute(designWidthInDp, 0, screenWidth, screenWidth * 2, fontScale, true);
+        return new ConversionTable(info.getDensityDpi(), info.getScaledDensity()
+                , info.getXdpi() * Subunits.PT.getUnitsPerInch());
+    }
+
+    @Test
+    public void fixedPointStaysWithinErrorBoundOfFloatPath() {
+        long conversions = 0;
+        long fixedMisses = 0;
+        for (int designWidthInDp = 240; designWidthInDp <= 1440; designWidthInDp += 29) {
+            for (int screenWidth : SCREEN_WIDTHS) {
+                for (float fontScale : FONT_SCALES) {
+                    ConversionTable table = adaptedTable(designWidthInDp, screenWidth, fontScale);
+                    for (int unit : UNITS) {
+                        double factor = table.getFactor(unit);
+                        int fixedFactor = table.getFixedFactor(unit);
+                        assertTrue(Math.abs(fixedFactor / 65536.0 - factor) <= FACTOR_ERROR);
+                        for (int value = 0; value <= MAX_VALUE; value++) {
+                            int fixed = table.toPxFixed(unit, value);
+                            int floating = table.toPx(unit, value);
+                            double exact = value * factor;
+                            //定点数的误差随 value 线性增长, 结果与精确值四舍五入后最多相差 1px
+                            double raw = (double) value * fixedFactor / 65536.0;
+                            assertTrue(Math.abs(raw - exact) <= value * FACTOR_ERROR + 1e-9);
+                            assertEquals((long) Math.floor(raw + 0.5), fixed);
+                            long rounded = (long) Math.floor(exact + 0.5);
+                            assertTrue(Math.abs(fixed - rounded) <= 1);
+                            assertTrue(Math.abs(fixed - floating) <= 1);
+                            conversions++;
+                            if (fixed != rounded) {
+                                //舍入错误只会发生在精确值与 .5 的距离小于误差上限时
+                                double distanceToHalf = Math.abs(exact - Math.floor(exact) - 0.5);
+                                assertTrue(distanceToHalf <= value * FACTOR_ERROR + 1e-9);
+                                fixedMisses++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(fixedMisses + " / " + conversions, fixedMisses * 50 < conversions);
+    }
+
+    @Test
+    public void commonDensitiesConvertExactly() {
+        ConversionTable table = new ConversionTable(480, 3f, 441f);
+        for (int value = -1000; value <= MAX_VALUE; value++) {
+            assertEquals(value * 480, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_DIP, value));
+            assertEquals(value * 3, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_SP, value));
+            assertEquals(value * 441, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_IN, value));
+            assertEquals(value, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_PX, value));
+        }
+        assertEquals(0, table.toPxFixed(-1, 100));
+    }
+
+    @Test
+    public void negativeValuesRoundHalfUp() {
+        ConversionTable table = new ConversionTable(160, 1.5f, 160f);
+        assertEquals(-1, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_SP, -1));
+        assertEquals(-4, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_SP, -3));
+        assertEquals(2, table.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_SP, 1));
+    }
+}
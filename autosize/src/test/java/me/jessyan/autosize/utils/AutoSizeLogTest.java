@@ -0,0 +1,82 @@
+package me.jessyan.autosize.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AutoSizeLogTest {
+
+    @After
+    public void tearDown() {
+        AutoSizeLog.setLevel(AutoSizeLog.NONE);
+    }
+
+    private static Supplier<String> counting(final AtomicInteger calls) {
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                calls.incrementAndGet();
+                return "message";
+            }
+        };
+    }
+
+    @Test
+    public void nothingIsLoggableByDefault() {
+        assertEquals(AutoSizeLog.NONE, AutoSizeLog.getLevel());
+        assertFalse(AutoSizeLog.isDebug());
+        assertFalse(AutoSizeLog.isLoggable(AutoSizeLog.ERROR));
+    }
+
+    @Test
+    public void levelGatesLowerLevels() {
+        AutoSizeLog.setLevel(AutoSizeLog.WARN);
+        assertFalse(AutoSizeLog.isLoggable(AutoSizeLog.DEBUG));
+        assertFalse(AutoSizeLog.isLoggable(AutoSizeLog.INFO));
+        assertTrue(AutoSizeLog.isLoggable(AutoSizeLog.WARN));
+        assertTrue(AutoSizeLog.isLoggable(AutoSizeLog.ERROR));
+    }
+
+    @Test
+    public void setDebugMapsToLevel() {
+        AutoSizeLog.setDebug(true);
+        assertEquals(AutoSizeLog.DEBUG, AutoSizeLog.getLevel());
+        assertTrue(AutoSizeLog.isDebug());
+        AutoSizeLog.setDebug(false);
+        assertEquals(AutoSizeLog.NONE, AutoSizeLog.getLevel());
+    }
+
+    @Test
+    public void supplierIsOnlyInvokedWhenLoggable() {
+        AtomicInteger calls = new AtomicInteger();
+        AutoSizeLog.setLevel(AutoSizeLog.INFO);
+        AutoSizeLog.d(counting(calls));
+        assertEquals(0, calls.get());
+        AutoSizeLog.i(counting(calls));
+        AutoSizeLog.e(counting(calls));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void argumentsAreOnlyFormattedWhenLoggable() {
+        final AtomicInteger calls = new AtomicInteger();
+        Object arg = new Object() {
+            @Override
+            public String toString() {
+                calls.incrementAndGet();
+                return "arg";
+            }
+        };
+        AutoSizeLog.d("%s", arg);
+        assertEquals(0, calls.get());
+        AutoSizeLog.setDebug(true);
+        AutoSizeLog.d("%s", arg);
+        assertEquals(1, calls.get());
+    }
+}
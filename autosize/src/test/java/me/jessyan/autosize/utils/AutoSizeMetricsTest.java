@@ -0,0 +1,77 @@
+package me.jessyan.autosize.utils;
+
+import me.jessyan.autosize.unit.ConversionTable;
+import ohos.agp.window.service.DisplayAttributes;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutoSizeMetricsTest {
+
+    @Test
+    public void matchesApplyDimensionForEveryUnit() {
+        DisplayAttributes attributes = new DisplayAttributes();
+        attributes.densityDpi = 480;
+        attributes.scalDensity = 3.3f;
+        attributes.xDpi = 441.5f;
+        AutoSizeMetrics metrics = new AutoSizeMetrics(ConversionTable.of(attributes));
+
+        for (int unit = AutoSizeUtils.COMPLEX_UNIT_PX; unit <= AutoSizeUtils.COMPLEX_UNIT_MM; unit++) {
+            for (float value = -10; value < 500; value += 0.37f) {
+                assertEquals(Float.floatToIntBits(AutoSizeUtils.applyDimension(unit, value, attributes))
+                        , Float.floatToIntBits(metrics.applyDimension(unit, value)));
+            }
+        }
+        for (float value = 0; value < 500; value += 0.37f) {
+            assertEquals((int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_DIP, value, attributes) + 0.5f), metrics.dp2px(value));
+            assertEquals((int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_SP, value, attributes) + 0.5f), metrics.sp2px(value));
+            assertEquals((int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_PT, value, attributes) + 0.5f), metrics.pt2px(value));
+            assertEquals((int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_IN, value, attributes) + 0.5f), metrics.in2px(value));
+            assertEquals((int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_MM, value, attributes) + 0.5f), metrics.mm2px(value));
+        }
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterAttributeChanges() {
+        DisplayAttributes attributes = new DisplayAttributes();
+        attributes.densityDpi = 480;
+        AutoSizeMetrics metrics = new AutoSizeMetrics(ConversionTable.of(attributes));
+        attributes.densityDpi = 320;
+        assertEquals(480, metrics.dp2px(1));
+    }
+
+    @Test
+    public void bulkConversionMatchesScalarConversion() {
+        DisplayAttributes attributes = new DisplayAttributes();
+        attributes.densityDpi = 480;
+        attributes.scalDensity = 3.3f;
+        attributes.xDpi = 441.5f;
+        AutoSizeMetrics metrics = new AutoSizeMetrics(ConversionTable.of(attributes));
+        float[] floats = new float[1000];
+        int[] ints = new int[1000];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i * 0.37f;
+            ints[i] = i;
+        }
+
+        for (int unit = AutoSizeUtils.COMPLEX_UNIT_PX; unit <= AutoSizeUtils.COMPLEX_UNIT_MM; unit++) {
+            int[] fromFloats = metrics.toPx(unit, floats);
+            int[] fromInts = metrics.toPx(unit, ints);
+            int[] inPlace = ints.clone();
+            metrics.toPxInPlace(unit, inPlace);
+            float[] inPlaceFloats = floats.clone();
+            metrics.toPxInPlace(unit, inPlaceFloats);
+            for (int i = 0; i < floats.length; i++) {
+                assertEquals((int) (metrics.applyDimension(unit, floats[i]) + 0.5f), fromFloats[i]);
+                assertEquals((int) (metrics.applyDimension(unit, ints[i]) + 0.5f), fromInts[i]);
+                assertEquals(fromInts[i], inPlace[i]);
+                assertEquals(Float.floatToIntBits(metrics.applyDimension(unit, floats[i])), Float.floatToIntBits(inPlaceFloats[i]));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulkConversionRejectsShortDestination() {
+        new AutoSizeMetrics(ConversionTable.of(new DisplayAttributes())).toPx(AutoSizeUtils.COMPLEX_UNIT_DIP, new float[4], new int[3]);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import me.jessyan.autosize.external.ExternalAdaptInfo;
+import me.jessyan.autosize.internal.CancelAdapt;
+import me.jessyan.autosize.internal.CustomAdapt;
+import ohos.aafwk.ability.Ability;
+import ohos.aafwk.ability.AbilityPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ================================================
+ * {@link DefaultAutoAdaptStrategy#applyAdapt(Object, Ability)} 在每种 {@link AdaptType} 下的耗时
+ * ================================================
+ */
+@State(Scope.Thread)
+public class ApplyAdaptBenchmark {
+    @Param({"GLOBAL", "CUSTOM", "EXTERNAL", "CANCEL"})
+    public AdaptType type;
+
+    private DefaultAutoAdaptStrategy mStrategy;
+    private Ability mAbility;
+
+    public static class GlobalAbility extends Ability {
+    }
+
+    public static class CustomAbility extends Ability implements CustomAdapt {
+        @Override
+        public boolean isBaseOnWidth() {
+            return false;
+        }
+
+        @Override
+        public float getSizeInDp() {
+            return 667;
+        }
+    }
+
+    public static class ExternalAbility extends Ability {
+    }
+
+    public static class CancelAbility extends Ability implements CancelAdapt {
+    }
+
+    @Setup
+    public void setup() {
+        if (!AutoSize.checkInit()) {
+            AutoSizeConfig.getInstance().init(new AbilityPackage());
+        }
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(1080)
+                .setScreenHeight(2340)
+                .setDesignWidthInDp(360)
+                .setDesignHeightInDp(640)
+                .setExcludeFontScale(true);
+        config.getExternalAdaptManager().addExternalAdaptInfoOfAbility(ExternalAbility.class, new ExternalAdaptInfo(true, 375));
+        mStrategy = new DefaultAutoAdaptStrategy();
+        switch (type) {
+            case CUSTOM:
+                mAbility = new CustomAbility();
+                break;
+            case EXTERNAL:
+                mAbility = new ExternalAbility();
+                break;
+            case CANCEL:
+                mAbility = new CancelAbility();
+                break;
+            default:
+                mAbility = new GlobalAbility();
+        }
+    }
+
+    @Benchmark
+    public void applyAdapt() {
+        mStrategy.applyAdapt(mAbility, mAbility);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.Ability;
+import ohos.aafwk.ability.AbilityPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ================================================
+ * {@link AutoSize#autoConvertDensity(Ability, float, boolean)} 在命中和未命中 {@link DensityCache} 时的耗时
+ * <p>
+ * 未命中的场景每次都会先清空缓存, 所以结果中包含一次 {@link AutoSize#clearCache()} 的开销
+ * ================================================
+ */
+@State(Scope.Thread)
+public class AutoConvertDensityBenchmark {
+    private Ability mAbility;
+    private AutoSizeConfig.AdaptSnapshot mSnapshot;
+
+    @Setup
+    public void setup() {
+        if (!AutoSize.checkInit()) {
+            AutoSizeConfig.getInstance().init(new AbilityPackage());
+        }
+        AutoSizeConfig config = AutoSizeConfig.getInstance()
+                .setScreenWidth(1080)
+                .setScreenHeight(2340)
+                .setDesignWidthInDp(360)
+                .setDesignHeightInDp(640)
+                .setExcludeFontScale(true);
+        mAbility = new Ability();
+        mSnapshot = config.getSnapshot();
+        AutoSize.clearCache();
+    }
+
+    @Benchmark
+    public void cacheHit() {
+        AutoSize.autoConvertDensity(mAbility, mSnapshot, 360, true);
+    }
+
+    @Benchmark
+    public void cacheMiss() {
+        AutoSize.clearCache();
+        AutoSize.autoConvertDensity(mAbility, mSnapshot, 360, true);
+    }
+
+    /**
+     * 只计算 {@link DisplayMetricsInfo}, 不修改 DisplayAttributes
+     */
+    @Benchmark
+    public DisplayMetricsInfo computeOnMiss() {
+        AutoSize.clearCache();
+        return AutoSize.getDisplayMetricsInfo(mSnapshot, AutoSizeConfig.getInstance().getUnitsManager(), 360, true);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize;
+
+import ohos.aafwk.ability.Ability;
+import ohos.aafwk.ability.AbilityPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ================================================
+ * {@link AutoSizeConfig#init(AbilityPackage)} 在立即初始化和延迟初始化 ({@link AutoSizeConfig#setLazyInit(boolean)}) 下的启动耗时
+ * <p>
+ * {@link AutoSizeConfig#init(AbilityPackage)} 只能调用一次, 所以每次调用前都通过反射替换一个新的单例
+ * 运行在 ohos 的桩代码上, 获取屏幕信息的耗时远小于真机, 真机上两者的差距会更大
+ * ================================================
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 200, batchSize = 1)
+@Measurement(iterations = 1000, batchSize = 1)
+public class StartupBenchmark {
+    private AutoSizeConfig mConfig;
+    private AbilityPackage mApplication;
+    private Ability mAbility;
+
+    @Setup(Level.Invocation)
+    public void setup() throws Exception {
+        Constructor<AutoSizeConfig> constructor = AutoSizeConfig.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        mConfig = constructor.newInstance();
+        Field instance = AutoSizeConfig.class.getDeclaredField("sInstance");
+        instance.setAccessible(true);
+        instance.set(null, mConfig);
+        mApplication = new AbilityPackage();
+        mAbility = new Ability();
+    }
+
+    @Benchmark
+    public AutoSizeConfig eagerInit() {
+        return mConfig.setLazyInit(false).init(mApplication);
+    }
+
+    @Benchmark
+    public AutoSizeConfig lazyInit() {
+        return mConfig.setLazyInit(true).init(mApplication);
+    }
+
+    /**
+     * 延迟初始化加上第一次适配, 即延迟到第一个页面打开时的总耗时
+     */
+    @Benchmark
+    public AutoSizeConfig lazyInitAndFirstAdapt() {
+        mConfig.setLazyInit(true).init(mApplication);
+        mApplication.lifecycleCallbacks.get(0).onAbilityStart(mAbility);
+        return mConfig;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.benchmark;
+
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.agp.window.service.DisplayAttributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ================================================
+ * {@link AutoSizeUtils#applyDimension(int, float, DisplayAttributes)} 在每种单位下的耗时
+ * ================================================
+ */
+@State(Scope.Thread)
+public class ApplyDimensionBenchmark {
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int unit;
+
+    private DisplayAttributes mAttributes;
+    private float mValue = 16.5f;
+
+    @Setup
+    public void setup() {
+        mAttributes = new DisplayAttributes();
+        mAttributes.densityDpi = 480;
+        mAttributes.scalDensity = 3f;
+        mAttributes.xDpi = 440f;
+    }
+
+    @Benchmark
+    public float applyDimension() {
+        return AutoSizeUtils.applyDimension(unit, mValue, mAttributes);
+    }
+}
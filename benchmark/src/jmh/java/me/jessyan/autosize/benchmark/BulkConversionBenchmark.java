@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.benchmark;
+
+import me.jessyan.autosize.AutoSizeConfig;
+import me.jessyan.autosize.unit.ConversionTable;
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.aafwk.ability.Ability;
+import ohos.agp.window.service.DisplayAttributes;
+import ohos.agp.window.service.DisplayManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ================================================
+ * 对比逐个调用 {@link AutoSizeUtils#dp2px} 与批量转换 {@link AutoSizeUtils#toPx(ohos.app.Context, int, float[], int[])}
+ * ================================================
+ */
+@State(Scope.Thread)
+public class BulkConversionBenchmark {
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private Ability mAbility;
+    private float[] mValues;
+    private int[] mResult;
+
+    @Setup
+    public void setup() {
+        mAbility = new Ability();
+        DisplayAttributes attributes = DisplayManager.getInstance().getDefaultDisplay(mAbility).get().getAttributes();
+        attributes.densityDpi = 480;
+        attributes.scalDensity = 3f;
+        attributes.xDpi = 440f;
+        //AutoSizeUtils 使用 UnitsManager 中的转换系数表, 自己修改了 DisplayAttributes 需要替换这张表
+        AutoSizeConfig.getInstance().getUnitsManager().setConversionTable(ConversionTable.of(attributes));
+        mValues = new float[size];
+        for (int i = 0; i < size; i++) {
+            mValues[i] = i * 0.5f;
+        }
+        mResult = new int[size];
+    }
+
+    @Benchmark
+    public int[] scalarDp2px() {
+        for (int i = 0; i < mValues.length; i++) {
+            mResult[i] = AutoSizeUtils.dp2px(mAbility, mValues[i]);
+        }
+        return mResult;
+    }
+
+    @Benchmark
+    public int[] bulkDp2px() {
+        AutoSizeUtils.toPx(mAbility, AutoSizeUtils.COMPLEX_UNIT_DIP, mValues, mResult);
+        return mResult;
+    }
+
+    @Benchmark
+    public int[] bulkMm2px() {
+        AutoSizeUtils.toPx(mAbility, AutoSizeUtils.COMPLEX_UNIT_MM, mValues, mResult);
+        return mResult;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.benchmark;
+
+import me.jessyan.autosize.AutoSizeConfig;
+import me.jessyan.autosize.unit.ConversionTable;
+import me.jessyan.autosize.utils.AutoSizeMetrics;
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.aafwk.ability.Ability;
+import ohos.agp.window.service.DisplayAttributes;
+import ohos.agp.window.service.DisplayManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ================================================
+ * 对比浮点数转换 {@link AutoSizeMetrics#toPx(int, int[], int[])} 与定点数转换 {@link AutoSizeMetrics#toPxFixed(int, int[], int[])}
+ * 模拟一帧中转换大量整数尺寸的场景, 使用不是整数的转换系数, 避免 JIT 针对特殊值优化
+ * ================================================
+ */
+@State(Scope.Thread)
+public class FixedPointConversionBenchmark {
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private AutoSizeMetrics mMetrics;
+    private int[] mValues;
+    private int[] mResult;
+
+    @Setup
+    public void setup() {
+        Ability ability = new Ability();
+        DisplayAttributes attributes = DisplayManager.getInstance().getDefaultDisplay(ability).get().getAttributes();
+        attributes.densityDpi = 480;
+        attributes.scalDensity = 3.45f;
+        attributes.xDpi = 441.5f;
+        //AutoSizeMetrics 使用 UnitsManager 中的转换系数表, 自己修改了 DisplayAttributes 需要替换这张表
+        AutoSizeConfig.getInstance().getUnitsManager().setConversionTable(ConversionTable.of(attributes));
+        mMetrics = AutoSizeMetrics.get(ability);
+        mValues = new int[size];
+        for (int i = 0; i < size; i++) {
+            mValues[i] = i % 720;
+        }
+        mResult = new int[size];
+    }
+
+    @Benchmark
+    public int[] scalarSp2px() {
+        for (int i = 0; i < mValues.length; i++) {
+            mResult[i] = mMetrics.sp2px(mValues[i]);
+        }
+        return mResult;
+    }
+
+    @Benchmark
+    public int[] scalarSp2pxFixed() {
+        for (int i = 0; i < mValues.length; i++) {
+            mResult[i] = mMetrics.sp2pxFixed(mValues[i]);
+        }
+        return mResult;
+    }
+
+    @Benchmark
+    public int[] bulkPt2px() {
+        mMetrics.toPx(AutoSizeUtils.COMPLEX_UNIT_PT, mValues, mResult);
+        return mResult;
+    }
+
+    @Benchmark
+    public int[] bulkPt2pxFixed() {
+        mMetrics.toPxFixed(AutoSizeUtils.COMPLEX_UNIT_PT, mValues, mResult);
+        return mResult;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.benchmark;
+
+import me.jessyan.autosize.AutoSizeConfig;
+import me.jessyan.autosize.unit.ConversionTable;
+import me.jessyan.autosize.utils.AutoSizeMetrics;
+import me.jessyan.autosize.utils.AutoSizeUtils;
+import ohos.aafwk.ability.Ability;
+import ohos.agp.window.service.DisplayAttributes;
+import ohos.agp.window.service.DisplayManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ================================================
+ * 对比每次都获取 {@link DisplayAttributes} 的旧转换方式与 {@link AutoSizeMetrics} 缓存后的转换方式
+ * <p>
+ * 替身中的 {@link DisplayManager} 只是返回一个字段, 真机上获取 Display 的开销要大得多, 所以这里测出的差距是下限
+ * ================================================
+ */
+@State(Scope.Thread)
+public class UnitConversionBenchmark {
+    private Ability mAbility;
+    private AutoSizeMetrics mMetrics;
+    private float mValue = 16.5f;
+
+    @Setup
+    public void setup() {
+        mAbility = new Ability();
+        DisplayAttributes attributes = DisplayManager.getInstance().getDefaultDisplay(mAbility).get().getAttributes();
+        attributes.densityDpi = 480;
+        attributes.scalDensity = 3f;
+        attributes.xDpi = 440f;
+        //AutoSizeMetrics 使用 UnitsManager 中的转换系数表, 自己修改了 DisplayAttributes 需要替换这张表
+        AutoSizeConfig.getInstance().getUnitsManager().setConversionTable(ConversionTable.of(attributes));
+        mMetrics = AutoSizeMetrics.get(mAbility);
+    }
+
+    /**
+     * 旧版本 {@link AutoSizeUtils#dp2px} 的实现方式
+     */
+    @Benchmark
+    public int dp2pxLookupEveryCall() {
+        DisplayAttributes attributes = DisplayManager.getInstance().getDefaultDisplay(mAbility).get().getAttributes();
+        return (int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_DIP, mValue, attributes) + 0.5f);
+    }
+
+    @Benchmark
+    public int dp2px() {
+        return AutoSizeUtils.dp2px(mAbility, mValue);
+    }
+
+    @Benchmark
+    public int dp2pxHeldMetrics() {
+        return mMetrics.dp2px(mValue);
+    }
+
+    @Benchmark
+    public int mm2pxLookupEveryCall() {
+        DisplayAttributes attributes = DisplayManager.getInstance().getDefaultDisplay(mAbility).get().getAttributes();
+        return (int) (AutoSizeUtils.applyDimension(AutoSizeUtils.COMPLEX_UNIT_MM, mValue, attributes) + 0.5f);
+    }
+
+    @Benchmark
+    public int mm2px() {
+        return AutoSizeUtils.mm2px(mAbility, mValue);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.external;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ================================================
+ * {@link ExternalAdaptManager} 在注册了不同数量的三方库页面后的查询耗时
+ * <p>
+ * 每个被注册的 {@link Class} 都由一个独立的 {@link ClassLoader} 加载同一份字节码得到, 所以可以得到任意数量互不相同的 {@link Class}
+ * ================================================
+ */
+@State(Scope.Thread)
+public class ExternalAdaptManagerBenchmark {
+    @Param({"10", "100", "1000"})
+    public int registrations;
+
+    private ExternalAdaptManager mManager;
+    private Class<?> mExternalClass;
+    private Class<?> mCancelClass;
+
+    public static class Target {
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        byte[] bytes = readClassBytes(Target.class);
+        mManager = new ExternalAdaptManager();
+        for (int i = 0; i < registrations; i++) {
+            Class<?> external = new SingleClassLoader(Target.class.getName(), bytes).loadClass(Target.class.getName());
+            Class<?> cancel = new SingleClassLoader(Target.class.getName(), bytes).loadClass(Target.class.getName());
+            mManager.addExternalAdaptInfoOfAbility(external, new ExternalAdaptInfo(true, 360 + i));
+            mManager.addCancelAdaptOfAbility(cancel);
+            mExternalClass = external;
+            mCancelClass = cancel;
+        }
+    }
+
+    @Benchmark
+    public ExternalAdaptInfo getExternalAdaptInfoHit() {
+        return mManager.getExternalAdaptInfoOfActivity(mExternalClass);
+    }
+
+    @Benchmark
+    public ExternalAdaptInfo getExternalAdaptInfoMiss() {
+        return mManager.getExternalAdaptInfoOfActivity(Target.class);
+    }
+
+    @Benchmark
+    public boolean isCancelAdaptHit() {
+        return mManager.isCancelAdapt(mCancelClass);
+    }
+
+    @Benchmark
+    public boolean isCancelAdaptMiss() {
+        return mManager.isCancelAdapt(Target.class);
+    }
+
+    private static byte[] readClassBytes(Class<?> clazz) throws IOException {
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        InputStream in = clazz.getClassLoader().getResourceAsStream(resource);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static final class SingleClassLoader extends ClassLoader {
+        private final String mName;
+        private final byte[] mBytes;
+
+        SingleClassLoader(String name, byte[] bytes) {
+            super(SingleClassLoader.class.getClassLoader());
+            mName = name;
+            mBytes = bytes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (mName.equals(name)) {
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> clazz = findLoadedClass(name);
+                    if (clazz == null) {
+                        clazz = defineClass(name, mBytes, 0, mBytes.length);
+                    }
+                    return clazz;
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package me.jessyan.autosize;
+
+public final class ResourceTable {
+    public static final int String_app_name = 0;
+}
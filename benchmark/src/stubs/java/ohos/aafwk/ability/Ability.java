@@ -0,0 +1,6 @@
+package ohos.aafwk.ability;
+
+import ohos.app.AbilityContext;
+
+public class Ability extends AbilityContext {
+}
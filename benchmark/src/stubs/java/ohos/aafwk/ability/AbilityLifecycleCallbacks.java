@@ -0,0 +1,15 @@
+package ohos.aafwk.ability;
+
+public interface AbilityLifecycleCallbacks {
+    void onAbilityStart(Ability ability);
+
+    void onAbilityActive(Ability ability);
+
+    void onAbilityInactive(Ability ability);
+
+    void onAbilityForeground(Ability ability);
+
+    void onAbilityBackground(Ability ability);
+
+    void onAbilityStop(Ability ability);
+}
@@ -0,0 +1,25 @@
+package ohos.aafwk.ability;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ohos.app.AbilityContext;
+
+public class AbilityPackage extends AbilityContext {
+    public final List<AbilityLifecycleCallbacks> lifecycleCallbacks = new ArrayList<>();
+    public final List<ElementsCallback> elementsCallbacks = new ArrayList<>();
+
+    public void registerCallbacks(AbilityLifecycleCallbacks lifecycleCallbacks, ElementsCallback elementsCallback) {
+        if (lifecycleCallbacks != null) {
+            this.lifecycleCallbacks.add(lifecycleCallbacks);
+        }
+        if (elementsCallback != null) {
+            this.elementsCallbacks.add(elementsCallback);
+        }
+    }
+
+    public void unregisterCallbacks(AbilityLifecycleCallbacks lifecycleCallbacks, ElementsCallback elementsCallback) {
+        this.lifecycleCallbacks.remove(lifecycleCallbacks);
+        this.elementsCallbacks.remove(elementsCallback);
+    }
+}
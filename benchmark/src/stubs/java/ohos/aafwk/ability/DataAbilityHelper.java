@@ -0,0 +1,14 @@
+package ohos.aafwk.ability;
+
+import ohos.app.Context;
+import ohos.utils.net.Uri;
+
+public class DataAbilityHelper {
+    public static DataAbilityHelper creator(Context context) {
+        return new DataAbilityHelper();
+    }
+
+    public Object query(Uri uri, String[] columns, Object predicates) throws DataAbilityRemoteException {
+        return null;
+    }
+}
@@ -0,0 +1,5 @@
+package ohos.aafwk.ability;
+
+public class DataAbilityRemoteException extends Exception {
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,9 @@
+package ohos.aafwk.ability;
+
+import ohos.global.configuration.Configuration;
+
+public interface ElementsCallback {
+    void onMemoryLevel(int level);
+
+    void onConfigurationUpdated(Configuration configuration);
+}
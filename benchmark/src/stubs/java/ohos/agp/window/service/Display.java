@@ -0,0 +1,9 @@
+package ohos.agp.window.service;
+
+public interface Display {
+    int getDisplayId();
+
+    DisplayAttributes getAttributes();
+
+    DisplayAttributes getRealAttributes();
+}
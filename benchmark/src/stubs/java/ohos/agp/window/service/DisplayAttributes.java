@@ -0,0 +1,11 @@
+package ohos.agp.window.service;
+
+public class DisplayAttributes {
+    public int width;
+    public int height;
+    public float densityPixels;
+    public int densityDpi;
+    public float scalDensity;
+    public float xDpi;
+    public float yDpi;
+}
@@ -0,0 +1,58 @@
+package ohos.agp.window.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+import ohos.app.Context;
+
+public class DisplayManager {
+    private static final DisplayManager INSTANCE = new DisplayManager();
+    private final Optional<Display> defaultDisplay = Optional.<Display>of(new DisplayImpl(0));
+    private final Map<Context, Optional<Display>> displays = new WeakHashMap<>();
+
+    public static DisplayManager getInstance() {
+        return INSTANCE;
+    }
+
+    public Optional<Display> getDefaultDisplay(Context context) {
+        Optional<Display> display = displays.get(context);
+        return display != null ? display : defaultDisplay;
+    }
+
+    /**
+     * 替身专用, 模拟 context 位于其他 Display 上, display 为 null 时恢复为默认 Display
+     */
+    public void setDisplay(Context context, Display display) {
+        if (display == null) {
+            displays.remove(context);
+        } else {
+            displays.put(context, Optional.of(display));
+        }
+    }
+
+    private static final class DisplayImpl implements Display {
+        private final int id;
+        private final DisplayAttributes attributes = new DisplayAttributes();
+        private final DisplayAttributes realAttributes = new DisplayAttributes();
+
+        DisplayImpl(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int getDisplayId() {
+            return id;
+        }
+
+        @Override
+        public DisplayAttributes getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public DisplayAttributes getRealAttributes() {
+            return realAttributes;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ohos.app;
+
+import java.io.File;
+
+import ohos.global.resource.ResourceManager;
+
+public class AbilityContext implements Context {
+    private final ResourceManager resourceManager = new ResourceManager();
+    private File cacheDir = new File(System.getProperty("java.io.tmpdir"));
+
+    @Override
+    public ResourceManager getResourceManager() {
+        return resourceManager;
+    }
+
+    @Override
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    @Override
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public void setCacheDir(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public Context getContext() {
+        return this;
+    }
+}
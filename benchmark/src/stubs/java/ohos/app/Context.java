@@ -0,0 +1,13 @@
+package ohos.app;
+
+import java.io.File;
+
+import ohos.global.resource.ResourceManager;
+
+public interface Context {
+    ResourceManager getResourceManager();
+
+    File getCacheDir();
+
+    Context getApplicationContext();
+}
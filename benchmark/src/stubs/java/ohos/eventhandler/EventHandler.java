@@ -0,0 +1,17 @@
+package ohos.eventhandler;
+
+public class EventHandler {
+    public EventHandler(EventRunner runner) {
+    }
+
+    public void postTask(Runnable task) {
+        task.run();
+    }
+
+    public void postTask(Runnable task, long delayTime) {
+        task.run();
+    }
+
+    public void removeTask(Runnable task) {
+    }
+}
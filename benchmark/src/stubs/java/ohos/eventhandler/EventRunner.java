@@ -0,0 +1,13 @@
+package ohos.eventhandler;
+
+public class EventRunner {
+    private static final EventRunner MAIN = new EventRunner();
+
+    public static EventRunner current() {
+        return MAIN;
+    }
+
+    public static EventRunner getMainEventRunner() {
+        return MAIN;
+    }
+}
@@ -0,0 +1,8 @@
+package ohos.global.configuration;
+
+public class Configuration {
+    public static final int DIRECTION_VERTICAL = 0;
+    public static final int DIRECTION_HORIZONTAL = 1;
+    public int direction;
+    public float fontRatio;
+}
@@ -0,0 +1,7 @@
+package ohos.global.configuration;
+
+public class DeviceCapability {
+    public int screenDensity;
+    public int width;
+    public int height;
+}
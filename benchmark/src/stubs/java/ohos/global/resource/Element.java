@@ -0,0 +1,7 @@
+package ohos.global.resource;
+
+public class Element {
+    public String getString() {
+        return "";
+    }
+}
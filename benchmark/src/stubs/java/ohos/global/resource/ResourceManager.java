@@ -0,0 +1,26 @@
+package ohos.global.resource;
+
+import ohos.global.configuration.Configuration;
+import ohos.global.configuration.DeviceCapability;
+
+public class ResourceManager {
+    private final Configuration configuration = new Configuration();
+    private final DeviceCapability deviceCapability = new DeviceCapability();
+    public int updateCount;
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public DeviceCapability getDeviceCapability() {
+        return deviceCapability;
+    }
+
+    public void updateConfiguration(Configuration configuration, DeviceCapability deviceCapability) {
+        updateCount++;
+    }
+
+    public Element getElement(int id) throws java.io.IOException, NotExistException, WrongTypeException {
+        return new Element();
+    }
+}
@@ -0,0 +1,5 @@
+package ohos.global.resource;
+
+public class WrongTypeException extends Exception {
+    private static final long serialVersionUID = 1L;
+}
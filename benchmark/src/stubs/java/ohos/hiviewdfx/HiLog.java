@@ -0,0 +1,24 @@
+package ohos.hiviewdfx;
+
+public final class HiLog {
+    public static final int LOG_APP = 0;
+
+    private HiLog() {
+    }
+
+    public static int debug(HiLogLabel label, String format, Object... args) {
+        return 0;
+    }
+
+    public static int info(HiLogLabel label, String format, Object... args) {
+        return 0;
+    }
+
+    public static int warn(HiLogLabel label, String format, Object... args) {
+        return 0;
+    }
+
+    public static int error(HiLogLabel label, String format, Object... args) {
+        return 0;
+    }
+}
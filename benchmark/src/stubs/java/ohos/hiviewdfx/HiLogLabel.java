@@ -0,0 +1,6 @@
+package ohos.hiviewdfx;
+
+public class HiLogLabel {
+    public HiLogLabel(int type, int domain, String tag) {
+    }
+}
@@ -0,0 +1,10 @@
+package ohos.utils;
+
+public class Parcel {
+    public void writeFloat(float value) { }
+    public void writeInt(int value) { }
+    public void writeByte(byte value) { }
+    public float readFloat() { return 0; }
+    public int readInt() { return 0; }
+    public byte readByte() { return 0; }
+}
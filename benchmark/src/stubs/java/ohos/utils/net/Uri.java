@@ -0,0 +1,7 @@
+package ohos.utils.net;
+
+public class Uri {
+    public static Uri parse(String uri) {
+        return new Uri();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.gradle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ================================================
+ * 资源文件中声明的一个尺寸, 例如 {@code resources/base/element/float.json} 中的
+ * <pre>
+ * {"float": [{"name": "title_size", "value": "16vp"}]}
+ * </pre>
+ * 单位支持 px、vp (dp)、fp (sp) 以及三个副单位 pt、in、mm, 没有单位时视为 px
+ * 值也可以是 {@code $float:name} 形式的引用, 引用会在所有资源文件读取完成后解析
+ * ================================================
+ */
+final class Dimension {
+    private static final String REFERENCE_PREFIX = "$float:";
+    private static final int MAX_REFERENCE_DEPTH = 16;
+
+    enum Unit {
+        PX(0),
+        VP(0),
+        FP(0),
+        PT(72f),
+        IN(1f),
+        MM(25.4f);
+
+        /**
+         * 一英寸等于多少个此单位, 只有副单位有意义
+         */
+        final float unitsPerInch;
+
+        Unit(float unitsPerInch) {
+            this.unitsPerInch = unitsPerInch;
+        }
+
+        boolean isSubunit() {
+            return unitsPerInch > 0;
+        }
+    }
+
+    final String name;
+    final float value;
+    final Unit unit;
+
+    Dimension(String name, float value, Unit unit) {
+        this.name = name;
+        this.value = value;
+        this.unit = unit;
+    }
+
+    /**
+     * @param name 资源名
+     * @param text 资源值, 例如 {@code 16vp}、{@code 1.5mm}、{@code 3}
+     * @return {@link Dimension}
+     * @throws IllegalArgumentException 无法识别的值
+     */
+    static Dimension parse(String name, String text) {
+        String trimmed = text.trim().toLowerCase(Locale.ENGLISH);
+        int end = trimmed.length();
+        while (end > 0 && Character.isLetter(trimmed.charAt(end - 1))) {
+            end--;
+        }
+        String suffix = trimmed.substring(end);
+        Unit unit;
+        switch (suffix) {
+            case "":
+            case "px":
+                unit = Unit.PX;
+                break;
+            case "vp":
+            case "dp":
+                unit = Unit.VP;
+                break;
+            case "fp":
+            case "sp":
+                unit = Unit.FP;
+                break;
+            case "pt":
+                unit = Unit.PT;
+                break;
+            case "in":
+                unit = Unit.IN;
+                break;
+            case "mm":
+                unit = Unit.MM;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported unit '" + suffix + "' of " + name + " = " + text);
+        }
+        try {
+            return new Dimension(name, Float.parseFloat(trimmed.substring(0, end)), unit);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid dimension " + name + " = " + text);
+        }
+    }
+
+    /**
+     * 读取所有资源文件中的 {@code float} 数组, 没有 {@code float} 数组的资源文件 (例如 string.json) 会被忽略
+     *
+     * @param files 资源文件
+     * @return 按文件和声明顺序排列的尺寸
+     * @throws IOException              读取失败
+     * @throws IllegalArgumentException 资源格式错误、重名或引用无法解析
+     */
+    static List<Dimension> readAll(Collection<File> files) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (File file : files) {
+            Object json = JsonParser.parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            if (!(json instanceof Map) || !(((Map<?, ?>) json).get("float") instanceof List)) {
+                continue;
+            }
+            for (Object item : (List<?>) ((Map<?, ?>) json).get("float")) {
+                if (!(item instanceof Map)) {
+                    throw new IllegalArgumentException("Invalid float resource in " + file);
+                }
+                Object name = ((Map<?, ?>) item).get("name");
+                Object value = ((Map<?, ?>) item).get("value");
+                if (!(name instanceof String) || value == null) {
+                    throw new IllegalArgumentException("Invalid float resource " + item + " in " + file);
+                }
+                //数字形式的值 (例如 "value": 16) 按 px 处理
+                String text = value instanceof Double ? formatNumber((Double) value) : value.toString();
+                if (values.put((String) name, text) != null) {
+                    throw new IllegalArgumentException("Duplicate float resource " + name + " in " + file);
+                }
+            }
+        }
+        List<Dimension> dimensions = new ArrayList<>(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            dimensions.add(parse(entry.getKey(), resolve(entry.getKey(), values)));
+        }
+        return dimensions;
+    }
+
+    private static String resolve(String name, Map<String, String> values) {
+        String text = values.get(name);
+        for (int depth = 0; text.startsWith(REFERENCE_PREFIX); depth++) {
+            if (depth >= MAX_REFERENCE_DEPTH) {
+                throw new IllegalArgumentException("Circular reference of " + name);
+            }
+            String target = text.substring(REFERENCE_PREFIX.length());
+            text = values.get(target);
+            if (text == null) {
+                throw new IllegalArgumentException(name + " references a missing float resource " + target);
+            }
+        }
+        return text;
+    }
+
+    private static String formatNumber(Double number) {
+        return number == Math.rint(number) ? String.valueOf(number.longValue()) : number.toString();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.gradle;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.lang.model.SourceVersion;
+
+/**
+ * ================================================
+ * 在构建时按照设计图尺寸和副单位配置, 预先计算每个屏幕尺寸分档 (bucket) 下所有 {@link Dimension} 适配后的像素值, 并生成 Java 类
+ * <p>
+ * 计算方式与运行时的 {@code DensityCalculator#compute} 以及 {@code ConversionTable} 一致:
+ * {@code density = screenSize / designSizeInDp}, 副单位 {@code xdpi = screenSize / designSizeInSubunits}, 结果按 {@code (int) (px + 0.5f)} 取整
+ * 构建时无法知道用户设置的字体缩放比例, 所以 fp 按字体缩放比例为 1 计算
+ * <p>
+ * 生成的类中, 每个分档都有一个嵌套类保存编译期常量 (例如 {@code AutoSizeDimens.W1080.title_size}), 运行时直接读取常量
+ * 不确定分档时, 可以通过 {@code indexOfBucket(int)} 和 {@code get(int, int)} 查表
+ * <p>
+ * 此类不依赖 Gradle, 可以在普通 JVM 上测试
+ * ================================================
+ */
+final class DimensionTableGenerator {
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList("DESIGN_WIDTH_IN_DP"
+            , "DESIGN_HEIGHT_IN_DP", "BASE_ON_WIDTH", "SUBUNITS", "BUCKETS", "TABLE", "indexOfBucket", "get"));
+
+    private int mDesignWidthInDp = 360;
+    private int mDesignHeightInDp = 640;
+    private float mDesignWidthInSubunits;
+    private float mDesignHeightInSubunits;
+    private Dimension.Unit mSubunits;
+    private boolean isBaseOnWidth = true;
+    private int[] mBuckets = {720, 1080, 1440};
+
+    /**
+     * 设置设计图尺寸, 单位 dp, 与 {@code AutoSizeConfig} 中的设计图尺寸一致
+     */
+    DimensionTableGenerator setDesignSize(int designWidthInDp, int designHeightInDp) {
+        if (designWidthInDp <= 0 || designHeightInDp <= 0) {
+            throw new IllegalArgumentException("designWidthInDp and designHeightInDp must be > 0");
+        }
+        mDesignWidthInDp = designWidthInDp;
+        mDesignHeightInDp = designHeightInDp;
+        return this;
+    }
+
+    /**
+     * 设置副单位的设计图尺寸, 与 {@code UnitsManager#setDesignSize} 一致, 小于等于 0 时使用 dp 的设计图尺寸
+     */
+    DimensionTableGenerator setSubunitsDesignSize(float designWidth, float designHeight) {
+        mDesignWidthInSubunits = designWidth;
+        mDesignHeightInSubunits = designHeight;
+        return this;
+    }
+
+    /**
+     * @param subunits {@code NONE}、{@code PT}、{@code IN}、{@code MM}, 与 {@code Subunits} 的名称一致
+     */
+    DimensionTableGenerator setSubunits(String subunits) {
+        String name = subunits.trim().toUpperCase(Locale.ENGLISH);
+        if ("NONE".equals(name)) {
+            mSubunits = null;
+            return this;
+        }
+        Dimension.Unit unit;
+        try {
+            unit = Dimension.Unit.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            unit = null;
+        }
+        if (unit == null || !unit.isSubunit()) {
+            throw new IllegalArgumentException("Unsupported subunits " + subunits + ", use NONE, PT, IN or MM");
+        }
+        mSubunits = unit;
+        return this;
+    }
+
+    DimensionTableGenerator setBaseOnWidth(boolean baseOnWidth) {
+        isBaseOnWidth = baseOnWidth;
+        return this;
+    }
+
+    /**
+     * @param buckets 需要预先计算的屏幕尺寸, 单位 px, 以宽度为基准时为屏幕宽度, 否则为屏幕高度
+     */
+    DimensionTableGenerator setBuckets(int... buckets) {
+        TreeSet<Integer> sorted = new TreeSet<>();
+        for (int bucket : buckets) {
+            if (bucket <= 0) {
+                throw new IllegalArgumentException("bucket must be > 0: " + bucket);
+            }
+            sorted.add(bucket);
+        }
+        if (sorted.isEmpty()) {
+            throw new IllegalArgumentException("buckets can not be empty");
+        }
+        mBuckets = new int[sorted.size()];
+        int i = 0;
+        for (int bucket : sorted) {
+            mBuckets[i++] = bucket;
+        }
+        return this;
+    }
+
+    int[] getBuckets() {
+        return mBuckets.clone();
+    }
+
+    /**
+     * 计算 {@code dimension} 在屏幕尺寸为 {@code screenSize} 时的像素值
+     *
+     * @throws IllegalArgumentException 没有设置副单位却使用了 pt、in、mm, 这时运行时使用的是设备的物理尺寸, 无法预先计算
+     */
+    int toPx(Dimension dimension, int screenSize) {
+        int sizeInDp = isBaseOnWidth ? mDesignWidthInDp : mDesignHeightInDp;
+        float density = screenSize * 1.0f / sizeInDp;
+        float factor;
+        switch (dimension.unit) {
+            case PX:
+                factor = 1;
+                break;
+            case VP:
+            case FP:
+                factor = density;
+                break;
+            default:
+                if (mSubunits == null) {
+                    throw new IllegalArgumentException(dimension.name + " uses " + dimension.unit
+                            + " but subunits is NONE, it can not be pre-scaled");
+                }
+                float subunitsDesignSize = isBaseOnWidth ? mDesignWidthInSubunits : mDesignHeightInSubunits;
+                if (subunitsDesignSize <= 0) {
+                    subunitsDesignSize = sizeInDp;
+                }
+                //每个副单位的像素数换算为每英寸的像素数, 再换算为 dimension 的单位
+                float xdpi = screenSize * 1.0f / subunitsDesignSize * mSubunits.unitsPerInch;
+                factor = xdpi / dimension.unit.unitsPerInch;
+        }
+        return (int) (dimension.value * factor + 0.5f);
+    }
+
+    /**
+     * @return {@code table[bucket][dimension]}
+     */
+    int[][] scale(List<Dimension> dimensions) {
+        int[][] table = new int[mBuckets.length][dimensions.size()];
+        for (int bucket = 0; bucket < mBuckets.length; bucket++) {
+            for (int i = 0; i < dimensions.size(); i++) {
+                table[bucket][i] = toPx(dimensions.get(i), mBuckets[bucket]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 生成 Java 源码
+     *
+     * @param className  完整类名, 例如 {@code me.jessyan.autosize.AutoSizeDimens}
+     * @param dimensions 所有尺寸
+     * @return Java 源码
+     */
+    String generate(String className, List<Dimension> dimensions) {
+        int dot = className.lastIndexOf('.');
+        String packageName = dot > 0 ? className.substring(0, dot) : null;
+        String simpleName = className.substring(dot + 1);
+        if (!SourceVersion.isName(className)) {
+            throw new IllegalArgumentException("Invalid class name " + className);
+        }
+        String[] fields = new String[dimensions.size()];
+        Set<String> used = new HashSet<>(RESERVED_NAMES);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = toFieldName(dimensions.get(i).name);
+            if (!used.add(fields[i])) {
+                throw new IllegalArgumentException("Dimension " + dimensions.get(i).name + " conflicts with another name");
+            }
+        }
+        int[][] table = scale(dimensions);
+        String bucketPrefix = isBaseOnWidth ? "W" : "H";
+
+        StringBuilder out = new StringBuilder();
+        out.append("// 由 AutoSize 的 generateDimensionTable 任务生成, 不要手动修改\n");
+        if (packageName != null) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import java.util.Arrays;\n\n");
+        out.append("/**\n");
+        out.append(" * 设计图尺寸 ").append(mDesignWidthInDp).append(" * ").append(mDesignHeightInDp)
+                .append(" dp, 以").append(isBaseOnWidth ? "宽度" : "高度").append("为基准, 副单位 ")
+                .append(mSubunits == null ? "NONE" : mSubunits.name()).append(", 分档 ").append(Arrays.toString(mBuckets)).append(" px\n");
+        out.append(" */\n");
+        out.append("public final class ").append(simpleName).append(" {\n");
+        out.append("    public static final int DESIGN_WIDTH_IN_DP = ").append(mDesignWidthInDp).append(";\n");
+        out.append("    public static final int DESIGN_HEIGHT_IN_DP = ").append(mDesignHeightInDp).append(";\n");
+        out.append("    public static final boolean BASE_ON_WIDTH = ").append(isBaseOnWidth).append(";\n");
+        out.append("    public static final String SUBUNITS = \"").append(mSubunits == null ? "NONE" : mSubunits.name()).append("\";\n");
+        out.append("    private static final int[] BUCKETS = {").append(join(mBuckets)).append("};\n");
+        out.append("    private static final int[][] TABLE = {\n");
+        for (int bucket = 0; bucket < table.length; bucket++) {
+            out.append("            {").append(join(table[bucket])).append("},\n");
+        }
+        out.append("    };\n\n");
+        out.append("    /**\n     * 以下是每个尺寸在 {@link #get(int, int)} 中的下标\n     */\n");
+        for (int i = 0; i < fields.length; i++) {
+            out.append("    public static final int ").append(fields[i]).append(" = ").append(i).append(";\n");
+        }
+        for (int bucket = 0; bucket < mBuckets.length; bucket++) {
+            String bucketName = bucketPrefix + mBuckets[bucket];
+            out.append("\n    /**\n     * 屏幕").append(isBaseOnWidth ? "宽度" : "高度").append("为 ")
+                    .append(mBuckets[bucket]).append(" px 时的像素值\n     */\n");
+            out.append("    public static final class ").append(bucketName).append(" {\n");
+            for (int i = 0; i < fields.length; i++) {
+                out.append("        public static final int ").append(fields[i]).append(" = ").append(table[bucket][i]).append(";\n");
+            }
+            out.append("\n        private ").append(bucketName).append("() {\n        }\n    }\n");
+        }
+        out.append("\n    private ").append(simpleName).append("() {\n    }\n\n");
+        out.append("    /**\n");
+        out.append("     * @param screenSize 屏幕").append(isBaseOnWidth ? "宽度" : "高度").append(", 单位 px\n");
+        out.append("     * @return 分档的下标, 没有预先计算这个尺寸时返回 -1\n");
+        out.append("     */\n");
+        out.append("    public static int indexOfBucket(int screenSize) {\n");
+        out.append("        int index = Arrays.binarySearch(BUCKETS, screenSize);\n");
+        out.append("        return index >= 0 ? index : -1;\n");
+        out.append("    }\n\n");
+        out.append("    /**\n");
+        out.append("     * @param bucket    {@link #indexOfBucket(int)}\n");
+        out.append("     * @param dimension 尺寸的下标, 例如 {@link #").append(fields.length > 0 ? fields[0] : "DESIGN_WIDTH_IN_DP").append("}\n");
+        out.append("     * @return 预先计算的像素值\n");
+        out.append("     */\n");
+        out.append("    public static int get(int bucket, int dimension) {\n");
+        out.append("        return TABLE[bucket][dimension];\n");
+        out.append("    }\n");
+        out.append("}\n");
+        return out.toString();
+    }
+
+    /**
+     * 资源名不是合法的 Java 标识符时, 把非法字符替换为 {@code _}
+     */
+    static String toFieldName(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 1);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            builder.append(Character.isJavaIdentifierPart(c) ? c : '_');
+        }
+        if (builder.length() == 0 || !Character.isJavaIdentifierStart(builder.charAt(0))) {
+            builder.insert(0, '_');
+        }
+        String field = builder.toString();
+        return SourceVersion.isKeyword(field) ? field + '_' : field;
+    }
+
+    private static String join(int[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(values[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ================================================
+ * 在构建时预先计算资源文件中所有尺寸在各个屏幕分档下的像素值, 并生成一个常量类, 计算逻辑详见 {@link DimensionTableGenerator}
+ * <p>
+ * 设置了 {@code configFile} 时, 设计图尺寸从 config.json 的 MetaData 中读取, 与运行时的 {@code AutoSizeConfig} 使用同一份配置
+ * 只有 config.json 中没有配置时才使用 {@code designWidthInDp}、{@code designHeightInDp}
+ * {@code subunits} 默认与运行时 {@code UnitsManager} 的默认值一样为 {@code NONE}, 运行时修改了副单位时需要同时修改
+ * <p>
+ * 在模块的 build.gradle 中注册:
+ * <pre>
+ * tasks.register('generateDimensionTable', me.jessyan.autosize.gradle.GenerateDimensionTableTask) {
+ *     resources = fileTree('src/main/resources/base/element') { include '*.json' }
+ *     configFile = file('src/main/config.json')
+ *     buckets = [720, 1080, 1440]
+ *     className = 'me.jessyan.autosize.AutoSizeDimens'
+ *     outputDir = file("$buildDir/generated/source/autosize/main")
+ * }
+ * </pre>
+ * ================================================
+ */
+public class GenerateDimensionTableTask extends DefaultTask {
+    private FileCollection mResources;
+    private File mConfigFile;
+    private int mDesignWidthInDp = 360;
+    private int mDesignHeightInDp = 640;
+    private float mDesignWidthInSubunits;
+    private float mDesignHeightInSubunits;
+    private String mSubunits = "NONE";
+    private boolean isBaseOnWidth = true;
+    private List<Integer> mBuckets = new ArrayList<>(Arrays.asList(720, 1080, 1440));
+    private String mClassName = "me.jessyan.autosize.AutoSizeDimens";
+    private File mOutputDir;
+
+    @TaskAction
+    public void generate() throws IOException {
+        int[] buckets = new int[mBuckets.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = mBuckets.get(i);
+        }
+        //按路径排序, 保证每次生成的内容都一样
+        List<File> files = new ArrayList<>(mResources.getFiles());
+        files.sort(null);
+        String source;
+        try {
+            int designWidthInDp = mDesignWidthInDp;
+            int designHeightInDp = mDesignHeightInDp;
+            if (mConfigFile != null) {
+                Map<String, String> metaData = MetaDataGenerator.read(mConfigFile);
+                designWidthInDp = MetaDataGenerator.getInt(metaData, MetaDataGenerator.KEY_DESIGN_WIDTH_IN_DP, designWidthInDp);
+                designHeightInDp = MetaDataGenerator.getInt(metaData, MetaDataGenerator.KEY_DESIGN_HEIGHT_IN_DP, designHeightInDp);
+            }
+            source = new DimensionTableGenerator()
+                    .setDesignSize(designWidthInDp, designHeightInDp)
+                    .setSubunitsDesignSize(mDesignWidthInSubunits, mDesignHeightInSubunits)
+                    .setSubunits(mSubunits)
+                    .setBaseOnWidth(isBaseOnWidth)
+                    .setBuckets(buckets)
+                    .generate(mClassName, Dimension.readAll(files));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUserDataException(e.getMessage(), e);
+        }
+        getProject().delete(mOutputDir);
+        File file = new File(mOutputDir, mClassName.replace('.', File.separatorChar) + ".java");
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("can not create " + file.getParentFile());
+        }
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @InputFiles
+    public FileCollection getResources() {
+        return mResources;
+    }
+
+    public void setResources(FileCollection resources) {
+        mResources = resources;
+    }
+
+    @InputFile
+    @Optional
+    public File getConfigFile() {
+        return mConfigFile;
+    }
+
+    public void setConfigFile(File configFile) {
+        mConfigFile = configFile;
+    }
+
+    @Input
+    public int getDesignWidthInDp() {
+        return mDesignWidthInDp;
+    }
+
+    public void setDesignWidthInDp(int designWidthInDp) {
+        mDesignWidthInDp = designWidthInDp;
+    }
+
+    @Input
+    public int getDesignHeightInDp() {
+        return mDesignHeightInDp;
+    }
+
+    public void setDesignHeightInDp(int designHeightInDp) {
+        mDesignHeightInDp = designHeightInDp;
+    }
+
+    @Input
+    public float getDesignWidthInSubunits() {
+        return mDesignWidthInSubunits;
+    }
+
+    public void setDesignWidthInSubunits(float designWidthInSubunits) {
+        mDesignWidthInSubunits = designWidthInSubunits;
+    }
+
+    @Input
+    public float getDesignHeightInSubunits() {
+        return mDesignHeightInSubunits;
+    }
+
+    public void setDesignHeightInSubunits(float designHeightInSubunits) {
+        mDesignHeightInSubunits = designHeightInSubunits;
+    }
+
+    @Input
+    public String getSubunits() {
+        return mSubunits;
+    }
+
+    public void setSubunits(String subunits) {
+        mSubunits = subunits;
+    }
+
+    @Input
+    public boolean isBaseOnWidth() {
+        return isBaseOnWidth;
+    }
+
+    public void setBaseOnWidth(boolean baseOnWidth) {
+        isBaseOnWidth = baseOnWidth;
+    }
+
+    @Input
+    public List<Integer> getBuckets() {
+        return mBuckets;
+    }
+
+    public void setBuckets(List<Integer> buckets) {
+        mBuckets = new ArrayList<>(buckets);
+    }
+
+    @Input
+    public String getClassName() {
+        return mClassName;
+    }
+
+    public void setClassName(String className) {
+        mClassName = className;
+    }
+
+    @OutputDirectory
+    public File getOutputDir() {
+        return mOutputDir;
+    }
+
+    public void setOutputDir(File outputDir) {
+        mOutputDir = outputDir;
+    }
+}
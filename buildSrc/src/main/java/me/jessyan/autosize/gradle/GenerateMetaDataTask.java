@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ================================================
+ * 在构建时将 config.json 中的 MetaData 生成为常量类, 供 {@code AutoSizeConfig#init} 同步读取, 解析逻辑详见 {@link MetaDataGenerator}
+ * <p>
+ * 在模块的 build.gradle 中注册:
+ * <pre>
+ * tasks.register('generateMetaData', me.jessyan.autosize.gradle.GenerateMetaDataTask) {
+ *     configFile = file('src/main/config.json')
+ *     outputDir = file("$buildDir/generated/source/autosize/metadata")
+ * }
+ * </pre>
+ * ================================================
+ */
+public class GenerateMetaDataTask extends DefaultTask {
+    private File mConfigFile;
+    private List<String> mKeys = new ArrayList<>(Arrays.asList(MetaDataGenerator.KEY_DESIGN_WIDTH_IN_DP, MetaDataGenerator.KEY_DESIGN_HEIGHT_IN_DP));
+    private String mClassName = "me.jessyan.autosize.AutoSizeMetaData";
+    private File mOutputDir;
+
+    @TaskAction
+    public void generate() throws IOException {
+        String source;
+        try {
+            source = MetaDataGenerator.generate(mClassName, mKeys, MetaDataGenerator.read(mConfigFile));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUserDataException(e.getMessage(), e);
+        }
+        getProject().delete(mOutputDir);
+        File file = new File(mOutputDir, mClassName.replace('.', File.separatorChar) + ".java");
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("can not create " + file.getParentFile());
+        }
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @InputFile
+    public File getConfigFile() {
+        return mConfigFile;
+    }
+
+    public void setConfigFile(File configFile) {
+        mConfigFile = configFile;
+    }
+
+    @Input
+    public List<String> getKeys() {
+        return mKeys;
+    }
+
+    public void setKeys(List<String> keys) {
+        mKeys = new ArrayList<>(keys);
+    }
+
+    @Input
+    public String getClassName() {
+        return mClassName;
+    }
+
+    public void setClassName(String className) {
+        mClassName = className;
+    }
+
+    @OutputDirectory
+    public File getOutputDir() {
+        return mOutputDir;
+    }
+
+    public void setOutputDir(File outputDir) {
+        mOutputDir = outputDir;
+    }
+}
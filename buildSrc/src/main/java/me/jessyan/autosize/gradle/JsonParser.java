@@ -0,0 +1,229 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.gradle;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ================================================
+ * 构建时读取 config.json、资源文件用的最小 JSON 解析器, 不依赖任何三方库, 可以在普通 JVM 上测试
+ * <p>
+ * 对象解析为 {@link LinkedHashMap} (保留字段顺序), 数组解析为 {@link List}, 数字解析为 {@link Double}
+ * 字符串、{@code true}/{@code false}/{@code null} 解析为对应的 Java 值
+ * ================================================
+ */
+final class JsonParser {
+    private final String mJson;
+    private int mPosition;
+
+    private JsonParser(String json) {
+        mJson = json;
+    }
+
+    /**
+     * @param json JSON 文本
+     * @return 解析结果
+     * @throws IllegalArgumentException JSON 格式错误
+     */
+    static Object parse(String json) {
+        JsonParser parser = new JsonParser(json);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.mPosition != json.length()) {
+            throw parser.error("unexpected trailing content");
+        }
+        return value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (mPosition >= mJson.length()) {
+            throw error("unexpected end of input");
+        }
+        char c = mJson.charAt(mPosition);
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw error("unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        mPosition++;
+        skipWhitespace();
+        if (peek() == '}') {
+            mPosition++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("expected a field name");
+            }
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                mPosition++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        mPosition++;
+        skipWhitespace();
+        if (peek() == ']') {
+            mPosition++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                mPosition++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        StringBuilder builder = new StringBuilder();
+        mPosition++;
+        while (true) {
+            if (mPosition >= mJson.length()) {
+                throw error("unterminated string");
+            }
+            char c = mJson.charAt(mPosition++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (mPosition >= mJson.length()) {
+                throw error("unterminated escape");
+            }
+            char escaped = mJson.charAt(mPosition++);
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(escaped);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (mPosition + 4 > mJson.length()) {
+                        throw error("invalid unicode escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(mJson.substring(mPosition, mPosition + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    mPosition += 4;
+                    break;
+                default:
+                    throw error("invalid escape '\\" + escaped + "'");
+            }
+        }
+    }
+
+    private Double readNumber() {
+        int start = mPosition;
+        while (mPosition < mJson.length() && "+-0123456789.eE".indexOf(mJson.charAt(mPosition)) >= 0) {
+            mPosition++;
+        }
+        try {
+            return Double.valueOf(mJson.substring(start, mPosition));
+        } catch (NumberFormatException e) {
+            mPosition = start;
+            throw error("invalid number");
+        }
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!mJson.startsWith(literal, mPosition)) {
+            throw error("unexpected character '" + mJson.charAt(mPosition) + "'");
+        }
+        mPosition += literal.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (mPosition < mJson.length() && Character.isWhitespace(mJson.charAt(mPosition))) {
+            mPosition++;
+        }
+    }
+
+    private char peek() {
+        if (mPosition >= mJson.length()) {
+            throw error("unexpected end of input");
+        }
+        return mJson.charAt(mPosition);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("expected '" + c + "'");
+        }
+        mPosition++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + mPosition);
+    }
+}
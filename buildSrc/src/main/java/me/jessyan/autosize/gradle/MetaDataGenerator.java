@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 JessYan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.jessyan.autosize.gradle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.lang.model.SourceVersion;
+
+/**
+ * ================================================
+ * 在构建时解析 config.json 中 {@code module.metaData.customizeData} 的配置, 生成一个只包含 int 常量的类
+ * <pre>
+ * "metaData": {
+ *   "customizeData": [
+ *     {"name": "design_width_in_dp", "value": "360"},
+ *     {"name": "design_height_in_dp", "value": "640"}
+ *   ]
+ * }
+ * </pre>
+ * 会生成 {@code DESIGN_WIDTH_IN_DP = 360}、{@code DESIGN_HEIGHT_IN_DP = 640}, 没有配置的 key 生成为 0
+ * 运行时直接读取常量, 不需要再在后台线程中读取 MetaData
+ * <p>
+ * 此类不依赖 Gradle, 可以在普通 JVM 上测试
+ * ================================================
+ */
+final class MetaDataGenerator {
+    static final String KEY_DESIGN_WIDTH_IN_DP = "design_width_in_dp";
+    static final String KEY_DESIGN_HEIGHT_IN_DP = "design_height_in_dp";
+
+    private MetaDataGenerator() {
+        throw new IllegalStateException("you can't instantiate me!");
+    }
+
+    /**
+     * @param configFile config.json
+     * @return {@code customizeData} 中所有的 name 和 value, 没有 {@code metaData} 时返回空的 {@link Map}
+     * @throws IOException              读取失败
+     * @throws IllegalArgumentException config.json 格式错误
+     */
+    static Map<String, String> read(File configFile) throws IOException {
+        Object json = JsonParser.parse(new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8));
+        Map<String, String> metaData = new LinkedHashMap<>();
+        Object customizeData = get(get(get(json, "module"), "metaData"), "customizeData");
+        if (customizeData == null) {
+            return metaData;
+        }
+        if (!(customizeData instanceof List)) {
+            throw new IllegalArgumentException("module.metaData.customizeData must be an array in " + configFile);
+        }
+        for (Object item : (List<?>) customizeData) {
+            Object name = get(item, "name");
+            Object value = get(item, "value");
+            if (name instanceof String && value != null) {
+                metaData.put((String) name, value instanceof Double ? toString((Double) value) : value.toString());
+            }
+        }
+        return metaData;
+    }
+
+    /**
+     * 整数形式的数字转为整数字符串, 其他数字 (如 {@code 360.5}) 保持原样, 由 {@link #parseInt(String, String)} 与字符串形式的值一样拒绝
+     */
+    private static String toString(Double value) {
+        int intValue = value.intValue();
+        return intValue == value ? String.valueOf(intValue) : value.toString();
+    }
+
+    /**
+     * 生成 Java 源码, 生成的类和常量都是包级私有的, 只供同一个包中的代码使用
+     *
+     * @param className 完整类名, 例如 {@code me.jessyan.autosize.AutoSizeMetaData}
+     * @param keys      需要生成常量的 key, 常量名为 key 的大写形式
+     * @param metaData  {@link #read(File)}
+     * @return Java 源码
+     * @throws IllegalArgumentException 值不是整数
+     */
+    static String generate(String className, List<String> keys, Map<String, String> metaData) {
+        if (!SourceVersion.isName(className)) {
+            throw new IllegalArgumentException("Invalid class name " + className);
+        }
+        int dot = className.lastIndexOf('.');
+        String simpleName = className.substring(dot + 1);
+        StringBuilder out = new StringBuilder();
+        out.append("// 由 AutoSize 的 generateMetaData 任务生成, 不要手动修改\n");
+        if (dot > 0) {
+            out.append("package ").append(className, 0, dot).append(";\n\n");
+        }
+        out.append("/**\n");
+        out.append(" * config.json 中 module.metaData.customizeData 的值, 没有配置时为 0\n");
+        out.append(" */\n");
+        out.append("final class ").append(simpleName).append(" {\n");
+        for (String key : keys) {
+            String field = key.toUpperCase(Locale.ENGLISH);
+            if (!SourceVersion.isIdentifier(field) || SourceVersion.isKeyword(field)) {
+                throw new IllegalArgumentException("Invalid meta-data key " + key);
+            }
+            out.append("    static final int ").append(field).append(" = ").append(parseInt(key, metaData.get(key))).append(";\n");
+        }
+        out.append("\n    private ").append(simpleName).append("() {\n    }\n");
+        out.append("}\n");
+        return out.toString();
+    }
+
+    /**
+     * 获取 {@code key} 对应的整数值, 生成 Java 源码之外的构建任务 (如 {@link GenerateDimensionTableTask}) 使用, 保证与运行时读取到的值一致
+     *
+     * @param metaData     {@link #read(File)}
+     * @param key          MetaData 的 key
+     * @param defaultValue 没有配置或者配置的值小于等于 0 时返回的值
+     * @return 整数值
+     * @throws IllegalArgumentException 值不是整数
+     */
+    static int getInt(Map<String, String> metaData, String key, int defaultValue) {
+        int value = parseInt(key, metaData.get(key));
+        return value > 0 ? value : defaultValue;
+    }
+
+    private static int parseInt(String key, String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value of " + key + " must be an integer: " + value);
+        }
+    }
+
+    private static Object get(Object json, String name) {
+        return json instanceof Map ? ((Map<?, ?>) json).get(name) : null;
+    }
+}
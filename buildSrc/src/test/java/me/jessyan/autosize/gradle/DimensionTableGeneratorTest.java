@@ -0,0 +1,156 @@
+package me.jessyan.autosize.gradle;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DimensionTableGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private static List<Dimension> fixture(String name) throws Exception {
+        File dir = new File(DimensionTableGeneratorTest.class.getResource("/fixtures/" + name).toURI());
+        File[] files = dir.listFiles();
+        Arrays.sort(files);
+        return Dimension.readAll(Arrays.asList(files));
+    }
+
+    private static int indexOf(List<Dimension> dimensions, String name) {
+        for (int i = 0; i < dimensions.size(); i++) {
+            if (dimensions.get(i).name.equals(name)) {
+                return i;
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    @Test
+    public void readsFloatResourcesAndIgnoresOtherTypes() throws Exception {
+        List<Dimension> dimensions = fixture("element");
+        assertEquals(6, dimensions.size());
+        Dimension alias = dimensions.get(indexOf(dimensions, "title_alias"));
+        assertEquals(16f, alias.value, 0);
+        assertEquals(Dimension.Unit.VP, alias.unit);
+        assertEquals(Dimension.Unit.PX, dimensions.get(indexOf(dimensions, "plain")).unit);
+    }
+
+    @Test
+    public void scalesPrimaryUnitsPerBucket() throws Exception {
+        List<Dimension> dimensions = fixture("element");
+        DimensionTableGenerator generator = new DimensionTableGenerator()
+                .setDesignSize(360, 640)
+                .setBuckets(1440, 720, 1080, 720);
+        assertArrayEquals(new int[]{720, 1080, 1440}, generator.getBuckets());
+        int[][] table = generator.scale(dimensions);
+        int title = indexOf(dimensions, "title_size");
+        int body = indexOf(dimensions, "body_size");
+        int divider = indexOf(dimensions, "divider");
+        int halfMargin = indexOf(dimensions, "half_margin");
+        assertArrayEquals(new int[]{32, 48, 64}, new int[]{table[0][title], table[1][title], table[2][title]});
+        assertArrayEquals(new int[]{28, 42, 56}, new int[]{table[0][body], table[1][body], table[2][body]});
+        assertArrayEquals(new int[]{1, 1, 1}, new int[]{table[0][divider], table[1][divider], table[2][divider]});
+        //7.5 * 3 = 22.5, 与运行时一样四舍五入
+        assertEquals(23, table[1][halfMargin]);
+    }
+
+    @Test
+    public void scalesHeightBasedBuckets() throws Exception {
+        List<Dimension> dimensions = fixture("element");
+        int[][] table = new DimensionTableGenerator()
+                .setDesignSize(360, 640)
+                .setBaseOnWidth(false)
+                .setBuckets(1920)
+                .scale(dimensions);
+        assertEquals(48, table[0][indexOf(dimensions, "title_size")]);
+    }
+
+    @Test
+    public void scalesSubunits() throws Exception {
+        List<Dimension> dimensions = fixture("subunits");
+        int[][] table = new DimensionTableGenerator()
+                .setDesignSize(360, 640)
+                .setSubunitsDesignSize(1080, 1920)
+                .setSubunits("mm")
+                .setBuckets(1080, 2160)
+                .scale(dimensions);
+        assertEquals(540, table[0][indexOf(dimensions, "card_width")]);
+        assertEquals(1080, table[1][indexOf(dimensions, "card_width")]);
+        assertEquals(25, table[0][indexOf(dimensions, "inch")]);
+        //72pt = 1in = 25.4mm
+        assertEquals(25, table[0][indexOf(dimensions, "point")]);
+        assertEquals(51, table[1][indexOf(dimensions, "point")]);
+        assertEquals(48, table[0][indexOf(dimensions, "title_size")]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subunitsRequireConfiguration() throws Exception {
+        new DimensionTableGenerator().scale(fixture("subunits"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownUnit() {
+        Dimension.parse("size", "12em");
+    }
+
+    @Test
+    public void sanitizesFieldNames() {
+        assertEquals("title_size", DimensionTableGenerator.toFieldName("title_size"));
+        assertEquals("_2x", DimensionTableGenerator.toFieldName("2x"));
+        assertEquals("a_b", DimensionTableGenerator.toFieldName("a-b"));
+        assertEquals("default_", DimensionTableGenerator.toFieldName("default"));
+    }
+
+    @Test
+    public void generatedClassCompilesToConstants() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        String source = new DimensionTableGenerator()
+                .setDesignSize(360, 640)
+                .setBuckets(720, 1080)
+                .generate("sample.AutoSizeDimens", fixture("element"));
+        File dir = temp.newFolder("src");
+        File file = new File(dir, "sample/AutoSizeDimens.java");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, compiler.run(null, null, null, "-encoding", "UTF-8", "-d", dir.getPath(), file.getPath()));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toURI().toURL()}, null)) {
+            Class<?> dimens = loader.loadClass("sample.AutoSizeDimens");
+            Class<?> w1080 = loader.loadClass("sample.AutoSizeDimens$W1080");
+            assertEquals(48, w1080.getField("title_size").getInt(null));
+            assertEquals(360, dimens.getField("DESIGN_WIDTH_IN_DP").getInt(null));
+            Method indexOfBucket = dimens.getMethod("indexOfBucket", int.class);
+            Method get = dimens.getMethod("get", int.class, int.class);
+            int bucket = (Integer) indexOfBucket.invoke(null, 1080);
+            assertEquals(1, bucket);
+            assertEquals(-1, indexOfBucket.invoke(null, 1000));
+            int title = dimens.getField("title_size").getInt(null);
+            assertEquals(48, get.invoke(null, bucket, title));
+            assertEquals(32, get.invoke(null, 0, title));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsReservedNames() {
+        new DimensionTableGenerator().generate("sample.AutoSizeDimens"
+                , Collections.singletonList(new Dimension("TABLE", 1, Dimension.Unit.VP)));
+    }
+}
@@ -0,0 +1,50 @@
+package me.jessyan.autosize.gradle;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JsonParserTest {
+
+    @Test
+    public void parsesNestedValues() {
+        Map<?, ?> json = (Map<?, ?>) JsonParser.parse("{\"a\": [1, -2.5, 3e2], \"b\": {\"c\": true, \"d\": null}, \"e\": false}");
+        assertEquals(Arrays.asList(1.0, -2.5, 300.0), json.get("a"));
+        Map<?, ?> b = (Map<?, ?>) json.get("b");
+        assertEquals(Boolean.TRUE, b.get("c"));
+        assertNull(b.get("d"));
+        assertEquals(Boolean.FALSE, json.get("e"));
+        assertEquals(Arrays.asList("a", "b", "e"), Arrays.asList(json.keySet().toArray()));
+    }
+
+    @Test
+    public void parsesEscapes() {
+        assertEquals("a\"b\\c/d\n\t中", JsonParser.parse("\"a\\\"b\\\\c\\/d\\n\\t\\u4e2d\""));
+    }
+
+    @Test
+    public void parsesEmptyContainers() {
+        assertEquals(0, ((Map<?, ?>) JsonParser.parse(" { } ")).size());
+        assertEquals(0, ((List<?>) JsonParser.parse("[ ]")).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTrailingContent() {
+        JsonParser.parse("{} {}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingComma() {
+        JsonParser.parse("[1 2]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnterminatedString() {
+        JsonParser.parse("{\"a\": \"b}");
+    }
+}
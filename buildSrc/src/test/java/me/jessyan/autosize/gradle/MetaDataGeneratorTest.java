@@ -0,0 +1,99 @@
+package me.jessyan.autosize.gradle;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetaDataGeneratorTest {
+    private static final List<String> KEYS = Arrays.asList("design_width_in_dp", "design_height_in_dp");
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private static File fixture(String name) throws Exception {
+        return new File(MetaDataGeneratorTest.class.getResource("/fixtures/config/" + name).toURI());
+    }
+
+    @Test
+    public void readsCustomizeData() throws Exception {
+        Map<String, String> metaData = MetaDataGenerator.read(fixture("config.json"));
+        assertEquals("375", metaData.get("design_width_in_dp"));
+        assertEquals("667", metaData.get("design_height_in_dp"));
+        assertEquals(3, metaData.size());
+    }
+
+    @Test
+    public void missingMetaDataGeneratesZero() throws Exception {
+        Map<String, String> metaData = MetaDataGenerator.read(fixture("no_metadata.json"));
+        assertTrue(metaData.isEmpty());
+        String source = MetaDataGenerator.generate("sample.AutoSizeMetaData", KEYS, metaData);
+        assertTrue(source.contains("static final int DESIGN_WIDTH_IN_DP = 0;"));
+        assertTrue(source.contains("static final int DESIGN_HEIGHT_IN_DP = 0;"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonIntegerValue() {
+        MetaDataGenerator.generate("sample.AutoSizeMetaData", KEYS
+                , Collections.singletonMap("design_width_in_dp", "360dp"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonIntegralNumber() throws Exception {
+        File config = temp.newFile("config.json");
+        Files.write(config.toPath(), ("{\"module\":{\"metaData\":{\"customizeData\":["
+                + "{\"name\":\"design_width_in_dp\",\"value\":360.5}]}}}").getBytes(StandardCharsets.UTF_8));
+        Map<String, String> metaData = MetaDataGenerator.read(config);
+        assertEquals("360.5", metaData.get("design_width_in_dp"));
+        MetaDataGenerator.generate("sample.AutoSizeMetaData", KEYS, metaData);
+    }
+
+    @Test
+    public void designSizeFallsBackWhenNotConfigured() throws Exception {
+        Map<String, String> metaData = MetaDataGenerator.read(fixture("config.json"));
+        assertEquals(375, MetaDataGenerator.getInt(metaData, MetaDataGenerator.KEY_DESIGN_WIDTH_IN_DP, 360));
+        assertEquals(667, MetaDataGenerator.getInt(metaData, MetaDataGenerator.KEY_DESIGN_HEIGHT_IN_DP, 640));
+        Map<String, String> empty = MetaDataGenerator.read(fixture("no_metadata.json"));
+        assertEquals(360, MetaDataGenerator.getInt(empty, MetaDataGenerator.KEY_DESIGN_WIDTH_IN_DP, 360));
+        assertEquals(640, MetaDataGenerator.getInt(empty, MetaDataGenerator.KEY_DESIGN_HEIGHT_IN_DP, 640));
+    }
+
+    @Test
+    public void generatedClassCompilesToConstants() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        String source = MetaDataGenerator.generate("sample.AutoSizeMetaData", KEYS, MetaDataGenerator.read(fixture("config.json")));
+        File dir = temp.newFolder("src");
+        File file = new File(dir, "sample/AutoSizeMetaData.java");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, compiler.run(null, null, null, "-encoding", "UTF-8", "-d", dir.getPath(), file.getPath()));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toURI().toURL()}, null)) {
+            Class<?> metaData = loader.loadClass("sample.AutoSizeMetaData");
+            Field width = metaData.getDeclaredField("DESIGN_WIDTH_IN_DP");
+            Field height = metaData.getDeclaredField("DESIGN_HEIGHT_IN_DP");
+            width.setAccessible(true);
+            height.setAccessible(true);
+            assertEquals(375, width.getInt(null));
+            assertEquals(667, height.getInt(null));
+        }
+    }
+}